@@ -0,0 +1,99 @@
+package org.dasher.speed.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * {@link AppointmentService#validateAppointment} on the seeded clinic. Upcoming slots are answered
+ * by the in-memory schedule index; slots before today fall back to the conflict query.
+ * About half of the candidates overlap an existing appointment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentValidationBenchmark {
+
+    private static final int CANDIDATES = 1024;
+
+    private AnnotationConfigApplicationContext context;
+    private AppointmentService appointmentService;
+    private Appointment[] upcoming;
+    private Appointment[] past;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        SeedData data = SeedData.seed(context.getBean(EntityManagerFactory.class));
+        appointmentService = context.getBean(AppointmentService.class);
+
+        Random random = new Random(7);
+        upcoming = new Appointment[CANDIDATES];
+        past = new Appointment[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            Person doctor = data.doctors.get(random.nextInt(data.doctors.size()));
+            upcoming[i] = candidate(doctor, data.today.plusDays(1 + random.nextInt(SeedData.DAYS_AFTER - 1))
+                    .atTime(8 + random.nextInt(10), random.nextBoolean() ? 0 : 30));
+            past[i] = candidate(doctor, data.today.minusDays(1 + random.nextInt(SeedData.DAYS_BEFORE - 1))
+                    .atTime(8 + random.nextInt(10), random.nextBoolean() ? 0 : 30));
+        }
+        // Carrega o índice de todos os médicos antes da medição
+        for (Person doctor : data.doctors) {
+            validate(candidate(doctor, data.today.plusDays(1).atTime(7, 0)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean validateUpcoming() {
+        return validate(upcoming[next++ & (CANDIDATES - 1)]);
+    }
+
+    @Benchmark
+    public boolean validatePast() {
+        return validate(past[next++ & (CANDIDATES - 1)]);
+    }
+
+    private boolean validate(Appointment appointment) {
+        try {
+            appointmentService.validateAppointment(appointment);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Appointment candidate(Person doctor, LocalDateTime start) {
+        Appointment appointment = new Appointment();
+        appointment.setPersonDoctor(doctor);
+        appointment.setAppointmentDate(start);
+        appointment.setEndDate(start.plusMinutes(30));
+        return appointment;
+    }
+}
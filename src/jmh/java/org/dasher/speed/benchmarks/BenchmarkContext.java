@@ -0,0 +1,90 @@
+package org.dasher.speed.benchmarks;
+
+import java.time.Clock;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.dasher.speed.taskmanagement.repository.NotificationOutboxRepository;
+import org.dasher.speed.taskmanagement.repository.PersonRepository;
+import org.dasher.speed.taskmanagement.security.SecurityService;
+import org.dasher.speed.taskmanagement.service.AppointmentService;
+import org.dasher.speed.taskmanagement.service.DoctorBookingLocks;
+import org.dasher.speed.taskmanagement.service.DoctorScheduleIndex;
+import org.dasher.speed.taskmanagement.service.NotificationMessageService;
+import org.dasher.speed.taskmanagement.service.PersonNameIndex;
+import org.dasher.speed.taskmanagement.service.PersonService;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * Minimal Spring context for the benchmarks: the real repositories and services on an in-memory
+ * H2 database, without Vaadin, RabbitMQ or the web layer.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackageClasses = PersonRepository.class)
+@Import({ AppointmentService.class, DoctorBookingLocks.class, DoctorScheduleIndex.class, PersonService.class,
+        PersonNameIndex.class, SecurityService.class })
+public class BenchmarkContext {
+
+    public static AnnotationConfigApplicationContext start() {
+        return new AnnotationConfigApplicationContext(BenchmarkContext.class);
+    }
+
+    // Converte os @Value (Duration, Period...) como no Spring Boot
+    @Bean
+    public static ConversionService conversionService() {
+        return new ApplicationConversionService();
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("org.dasher.speed.taskmanagement.domain");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "create");
+        factory.setJpaProperties(properties);
+        return factory;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    // Sem relay: os benchmarks só montam mensagens, nada é enviado ao RabbitMQ
+    @Bean
+    public NotificationMessageService notificationMessageService(NotificationOutboxRepository outboxRepository,
+                                                                 Clock clock) {
+        return new NotificationMessageService(outboxRepository, new ObjectMapper(), null, clock);
+    }
+}
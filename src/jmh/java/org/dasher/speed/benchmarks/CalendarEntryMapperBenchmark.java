@@ -0,0 +1,76 @@
+package org.dasher.speed.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.ui.components.CalendarEntryMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.stefan.fullcalendar.Entry;
+
+/**
+ * {@link CalendarEntryMapper#createCalendarEntry}, run once per appointment shown in the calendar
+ * on every fetch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarEntryMapperBenchmark {
+
+    private static final int APPOINTMENTS = 1024;
+
+    private final CalendarEntryMapper mapper = new CalendarEntryMapper();
+    private Appointment[] appointments;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Person doctor = person(1, "Ana", "Ribeiro Costa");
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        LocalDateTime start = LocalDateTime.now().withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+        appointments = new Appointment[APPOINTMENTS];
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setId(i + 1);
+            appointment.setAppointmentDate(start.plusMinutes(30L * i));
+            appointment.setEndDate(start.plusMinutes(30L * i + 30));
+            appointment.setStatus(statuses[i % statuses.length]);
+            appointment.setPersonDoctor(doctor);
+            if (i % 10 != 0) {
+                appointment.setPersonPatient(person(i + 2, "Paciente", "Número " + i));
+            }
+            if (i % 3 == 0) {
+                appointment.setDescription("Retorno para avaliação de exames");
+            }
+            appointments[i] = appointment;
+        }
+    }
+
+    @Benchmark
+    public Entry createCalendarEntry() {
+        return mapper.createCalendarEntry(appointments[next++ & (APPOINTMENTS - 1)]);
+    }
+
+    private static Person person(int id, String firstName, String lastName) {
+        Person person = new Person();
+        person.setId(id);
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        return person;
+    }
+}
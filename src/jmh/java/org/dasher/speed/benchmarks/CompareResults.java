@@ -0,0 +1,69 @@
+package org.dasher.speed.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two JMH JSON result files (for example from two commits) and prints the change of each
+ * benchmark's score. Scores are times per operation, so a positive change is a slowdown; changes
+ * beyond {@code threshold} percent (default 10) are flagged.
+ * <pre>
+ * CompareResults baseline.json candidate.json [threshold]
+ * </pre>
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompareResults <baseline.json> <candidate.json> [threshold%]");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> candidate = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int regressions = 0;
+        System.out.printf("%-90s %12s %12s %9s%n", "benchmark", "baseline", "candidate", "change");
+        for (Map.Entry<String, JsonNode> entry : new TreeMap<>(candidate).entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            double after = score(entry.getValue());
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %12s %12.3f %9s %s%n", entry.getKey(), "-", after, "novo", unit);
+                continue;
+            }
+            double change = (after - score(before)) / score(before) * 100;
+            String flag = change > threshold ? "  << regressão" : change < -threshold ? "  melhora" : "";
+            if (change > threshold) {
+                regressions++;
+            }
+            System.out.printf("%-90s %12.3f %12.3f %+8.1f%% %s%s%n", entry.getKey(), score(before), after, change,
+                    unit, flag);
+        }
+        System.out.printf("%d regressões acima de %.0f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Chave: nome do benchmark mais os valores de @Param, que distinguem as variações
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("org.dasher.speed.benchmarks.", ""));
+            result.path("params").fields().forEachRemaining(param -> key.append(' ')
+                    .append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+}
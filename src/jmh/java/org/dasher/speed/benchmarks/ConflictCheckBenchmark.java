@@ -0,0 +1,156 @@
+package org.dasher.speed.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.service.AppointmentService;
+import org.dasher.speed.taskmanagement.service.DoctorScheduleIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Conflict check against a doctor with a dense history: {@value #DENSE_APPOINTMENTS} back-to-back
+ * half-hour appointments from 7h to 19h, every day, before the seeded clinic window. Candidates fall
+ * inside that history, so the check goes to the database. {@code existsConflict} is the service path;
+ * {@code loadConflicts} is the former query, which loaded every overlapping appointment and filtered
+ * the status in memory. {@code windowHours} is the length of the candidate slot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflictCheckBenchmark {
+
+    static final int DENSE_APPOINTMENTS = 50_000;
+    private static final int SLOTS_PER_DAY = 24;
+    private static final int CANDIDATES = 1024;
+
+    @Param({ "1", "8" })
+    public int windowHours;
+
+    private AnnotationConfigApplicationContext context;
+    private AppointmentService appointmentService;
+    private EntityManager entityManager;
+    private Person doctor;
+    private LocalDateTime[] busy;
+    private LocalDateTime[] free;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        context = BenchmarkContext.start();
+        SeedData data = SeedData.seed(context.getBean(EntityManagerFactory.class));
+        doctor = data.doctors.get(0);
+        LocalDate lastDay = data.today.minusDays(SeedData.DAYS_BEFORE + 1);
+        int days = DENSE_APPOINTMENTS / SLOTS_PER_DAY;
+        fillDenseHistory(context.getBean(DataSource.class), doctor, lastDay, days);
+        appointmentService = context.getBean(AppointmentService.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+        // Ocupados: dentro do expediente; livres: à noite, depois do último horário do dia
+        Random random = new Random(5);
+        busy = new LocalDateTime[CANDIDATES];
+        free = new LocalDateTime[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            LocalDate day = lastDay.minusDays(random.nextInt(days));
+            busy[i] = day.atTime(7 + random.nextInt(4), random.nextBoolean() ? 0 : 30);
+            free[i] = day.atTime(19, 30);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public boolean existsConflictBusy() {
+        LocalDateTime start = busy[next++ & (CANDIDATES - 1)];
+        return appointmentService.hasConflictingAppointments(doctor, start, start.plusHours(windowHours), null);
+    }
+
+    @Benchmark
+    public boolean existsConflictFree() {
+        LocalDateTime start = free[next++ & (CANDIDATES - 1)];
+        return appointmentService.hasConflictingAppointments(doctor, start, start.plusHours(windowHours), null);
+    }
+
+    @Benchmark
+    public boolean loadConflictsBusy() {
+        LocalDateTime start = busy[next++ & (CANDIDATES - 1)];
+        return loadConflicts(start, start.plusHours(windowHours));
+    }
+
+    @Benchmark
+    public boolean loadConflictsFree() {
+        LocalDateTime start = free[next++ & (CANDIDATES - 1)];
+        return loadConflicts(start, start.plusHours(windowHours));
+    }
+
+    // Consulta anterior ao existsConflict: três faixas em OR e o status verificado na aplicação
+    private boolean loadConflicts(LocalDateTime startTime, LocalDateTime endTime) {
+        entityManager.clear();
+        return entityManager.createQuery("SELECT a FROM Appointment a WHERE a.person_doctor = :person_doctor " +
+                "AND a.id != :excludeId " +
+                "AND ((a.appointmentDate <= :startTime AND a.endDate > :startTime) " +
+                "OR (a.appointmentDate < :endTime AND a.endDate >= :endTime) " +
+                "OR (a.appointmentDate >= :startTime AND a.endDate <= :endTime))", Appointment.class)
+            .setParameter("person_doctor", doctor)
+            .setParameter("excludeId", -1)
+            .setParameter("startTime", startTime)
+            .setParameter("endTime", endTime)
+            .getResultList()
+            .stream()
+            .anyMatch(conflict -> DoctorScheduleIndex.isActive(conflict.getStatus()));
+    }
+
+    // Agenda lotada, um horário de 30 minutos atrás do outro; 1 em 10 cancelado
+    private static void fillDenseHistory(DataSource dataSource, Person doctor, LocalDate lastDay, int days)
+            throws SQLException {
+        String sql = "INSERT INTO appointments (appointment_date, end_date, title, status, person_doctor_id) " +
+                "VALUES (?, ?, 'Consulta', ?, ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(sql)) {
+            int row = 0;
+            for (int day = 0; day < days; day++) {
+                LocalDateTime start = lastDay.minusDays(day).atTime(7, 0);
+                for (int slot = 0; slot < SLOTS_PER_DAY; slot++, row++) {
+                    insert.setTimestamp(1, Timestamp.valueOf(start));
+                    insert.setTimestamp(2, Timestamp.valueOf(start.plusMinutes(30)));
+                    insert.setString(3, row % 10 == 0 ? "CANCELLED" : "COMPLETED");
+                    insert.setInt(4, doctor.getId());
+                    insert.addBatch();
+                    start = start.plusMinutes(30);
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.dasher.speed.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Day and week reads of a doctor's agenda with {@value #APPOINTMENTS} appointments in the table.
+ * {@code day} and {@code week} use the half-open range on {@code appointment_date}; {@code dayWithDateFunction}
+ * is the former {@code DATE(appointment_date) = :day} form and {@code weekDayByDay} is a week read with one
+ * query per day. The plans of the range and function forms are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoctorDayQueryBenchmark {
+
+    static final int APPOINTMENTS = 1_000_000;
+    private static final int CANDIDATES = 1024;
+
+    private AnnotationConfigApplicationContext context;
+    private AppointmentService appointmentService;
+    private EntityManager entityManager;
+    private Person[] doctors;
+    private LocalDate[] days;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        context = BenchmarkContext.start();
+        SeedData data = SeedData.seed(context.getBean(EntityManagerFactory.class));
+        DataSource dataSource = context.getBean(DataSource.class);
+        fillHistory(dataSource, data);
+        appointmentService = context.getBean(AppointmentService.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+        Random random = new Random(11);
+        doctors = new Person[CANDIDATES];
+        days = new LocalDate[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            doctors[i] = data.doctors.get(random.nextInt(data.doctors.size()));
+            days[i] = data.today.plusDays(random.nextInt(SeedData.DAYS_AFTER));
+        }
+        printPlans(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<Appointment> day() {
+        int i = next++ & (CANDIDATES - 1);
+        return appointmentService.findByDoctorAndDate(doctors[i], days[i].atTime(12, 0));
+    }
+
+    @Benchmark
+    public List<Appointment> dayWithDateFunction() {
+        int i = next++ & (CANDIDATES - 1);
+        entityManager.clear();
+        return entityManager.createQuery("SELECT a FROM Appointment a WHERE a.person_doctor = :person_doctor " +
+                "AND cast(a.appointmentDate as LocalDate) = :day ORDER BY a.appointmentDate", Appointment.class)
+            .setParameter("person_doctor", doctors[i])
+            .setParameter("day", days[i])
+            .getResultList();
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<Appointment>> week() {
+        int i = next++ & (CANDIDATES - 1);
+        return appointmentService.findByDoctorAndDays(doctors[i], workingWeek(days[i]));
+    }
+
+    @Benchmark
+    public List<List<Appointment>> weekDayByDay() {
+        int i = next++ & (CANDIDATES - 1);
+        List<List<Appointment>> week = new ArrayList<>();
+        for (LocalDate day : workingWeek(days[i])) {
+            week.add(appointmentService.findByDoctorAndDate(doctors[i], day.atStartOfDay()));
+        }
+        return week;
+    }
+
+    private static List<LocalDate> workingWeek(LocalDate day) {
+        LocalDate monday = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return monday.datesUntil(monday.plusDays(5)).toList();
+    }
+
+    // Completa a tabela até o volume do benchmark com histórico anterior à massa do SeedData
+    private static void fillHistory(DataSource dataSource, SeedData data) throws SQLException {
+        int existing = countRows(dataSource);
+        String sql = "INSERT INTO appointments (appointment_date, end_date, title, status, person_doctor_id) " +
+                "VALUES (?, ?, 'Consulta', 'COMPLETED', ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(sql)) {
+            LocalDate day = data.today.minusDays(SeedData.DAYS_BEFORE + 1);
+            int slot = 0;
+            for (int row = existing; row < APPOINTMENTS; row++) {
+                Person doctor = data.doctors.get(row % data.doctors.size());
+                LocalDateTime start = day.atTime(8, 0).plusMinutes(60L * slot);
+                insert.setTimestamp(1, Timestamp.valueOf(start));
+                insert.setTimestamp(2, Timestamp.valueOf(start.plusMinutes(30)));
+                insert.setInt(3, doctor.getId());
+                insert.addBatch();
+                if (row % data.doctors.size() == data.doctors.size() - 1
+                        && ++slot == SeedData.APPOINTMENTS_PER_DAY) {
+                    slot = 0;
+                    day = day.minusDays(1);
+                }
+                if (row % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static int countRows(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM appointments")) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    private static void printPlans(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            printPlan(statement, "faixa semiaberta", "SELECT * FROM appointments WHERE person_doctor_id = 1 " +
+                    "AND appointment_date >= DATE '2030-01-07' AND appointment_date < DATE '2030-01-08'");
+            printPlan(statement, "função sobre a coluna", "SELECT * FROM appointments WHERE person_doctor_id = 1 " +
+                    "AND CAST(appointment_date AS DATE) = DATE '2030-01-07'");
+        }
+    }
+
+    private static void printPlan(Statement statement, String label, String sql) throws SQLException {
+        try (ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            plan.next();
+            System.out.println("Plano (" + label + "):\n" + plan.getString(1));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.dasher.speed.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dasher.speed.taskmanagement.security.JwtTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Bearer-token checks done on every authenticated request, across {@value #USERS} users.
+ * {@code claimsCacheSize=0} measures the full signature verification; the default size measures
+ * the verified-claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+
+    private static final int USERS = 1024;
+
+    @Param({ "0", "10000" })
+    public long claimsCacheSize;
+
+    private JwtTokenService jwtTokenService;
+    private String[] tokens;
+    private UserDetails[] users;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtTokenService = new JwtTokenService("12345678901234567890123456789012345678901234567890", 86_400_000L,
+                claimsCacheSize);
+        tokens = new String[USERS];
+        users = new UserDetails[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = User.withUsername("user" + i + "@lifeplus.test").password("x").roles("USER").build();
+            tokens[i] = jwtTokenService.generateToken(users[i]);
+        }
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtTokenService.extractUsername(tokens[next++ & (USERS - 1)]);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        int user = next++ & (USERS - 1);
+        return jwtTokenService.isTokenValid(tokens[user], users[user]);
+    }
+}
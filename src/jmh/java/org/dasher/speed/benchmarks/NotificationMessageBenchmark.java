@@ -0,0 +1,75 @@
+package org.dasher.speed.benchmarks;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
+import org.dasher.speed.taskmanagement.service.NotificationMessageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the notification of an appointment change, alone and followed by the JSON
+ * serialization done before it is written to the outbox.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationMessageBenchmark {
+
+    @Param({ "SCHEDULING_REQUEST", "SCHEDULED", "CANCELLED" })
+    public AppointmentStatus status;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Só monta mensagens: outbox e relay não são usados
+    private final NotificationMessageService service = new NotificationMessageService(null, objectMapper, null,
+            Clock.systemDefaultZone());
+    private Appointment appointment;
+
+    @Setup
+    public void setUp() {
+        appointment = new Appointment();
+        appointment.setId(4321);
+        appointment.setAppointmentDate(LocalDateTime.now().plusDays(2));
+        appointment.setEndDate(appointment.getAppointmentDate().plusMinutes(30));
+        appointment.setStatus(status);
+        appointment.setPersonDoctor(person(10, "Ana", "Ribeiro Costa"));
+        appointment.setPersonPatient(person(20, "João", "Souza Lima"));
+    }
+
+    @Benchmark
+    public NotificationMessageRecordDto setNotificationMessageByAppointment() {
+        return service.setNotificationMessageByAppointment(appointment);
+    }
+
+    @Benchmark
+    public String toOutboxPayload() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(service.setNotificationMessageByAppointment(appointment));
+    }
+
+    private static Person person(int id, String firstName, String lastName) {
+        Person person = new Person();
+        person.setId(id);
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        return person;
+    }
+}
@@ -0,0 +1,91 @@
+package org.dasher.speed.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
+import org.dasher.speed.taskmanagement.repository.PersonRepository;
+import org.dasher.speed.taskmanagement.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * The person searches behind the doctor/patient pickers and grids, on the seeded clinic: name
+ * search through {@link PersonService} (name index plus one page query) and the
+ * {@link PersonRepository} listing queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonSearchBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 50, Sort.by("firstName", "lastName"));
+
+    private AnnotationConfigApplicationContext context;
+    private PersonService personService;
+    private PersonRepository personRepository;
+    private int next;
+
+    // Termo de busca separado em seu próprio estado para não multiplicar os demais benchmarks
+    @State(Scope.Benchmark)
+    public static class Term {
+        @Param({ "silva", "ana s", "mar", "xyz" })
+        public String value;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        SeedData.seed(context.getBean(EntityManagerFactory.class));
+        personService = context.getBean(PersonService.class);
+        personRepository = context.getBean(PersonRepository.class);
+        personService.loadNameIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<Person> searchPatientsByName(Term term) {
+        return personService.searchPatientsByName(term.value, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countPatientsByName(Term term) {
+        return personService.countPatientsByName(term.value);
+    }
+
+    @Benchmark
+    public Slice<Person> findPatientsPage() {
+        Pageable page = PageRequest.of(next++ % 20, 50, Sort.by("firstName", "lastName"));
+        return personRepository.findByRole(PersonRole.PATIENT, page);
+    }
+
+    @Benchmark
+    public List<Integer> findDoctorIdsBySpecialty() {
+        return personRepository.findDoctorIdsBySpecialty("Cardiologia");
+    }
+}
@@ -0,0 +1,153 @@
+package org.dasher.speed.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.Doctor;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.domain.User;
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
+import org.dasher.speed.taskmanagement.domain.Enums.Role;
+
+/**
+ * Deterministic data set for the database benchmarks: a clinic with {@value #DOCTORS} doctors and
+ * {@value #PATIENTS} patients, where every doctor has {@value #APPOINTMENTS_PER_DAY} appointments
+ * per working day from {@value #DAYS_BEFORE} days ago to {@value #DAYS_AFTER} days ahead.
+ */
+final class SeedData {
+
+    static final int DOCTORS = 200;
+    static final int PATIENTS = 5_000;
+    static final int APPOINTMENTS_PER_DAY = 6;
+    static final int DAYS_BEFORE = 30;
+    static final int DAYS_AFTER = 60;
+
+    private static final String[] FIRST_NAMES = { "Ana", "Maria", "João", "José", "Pedro", "Paulo", "Lucas",
+            "Mariana", "Juliana", "Fernanda", "Gabriel", "Rafael", "Beatriz", "Camila", "Carlos", "Bruno",
+            "Larissa", "Letícia", "Felipe", "Gustavo", "Amanda", "Patrícia", "Rodrigo", "Marcos", "Aline",
+            "Vanessa", "Ricardo", "Eduardo", "Tatiana", "Renata", "Thiago", "Diego", "Isabela", "Luana",
+            "Vitor", "Sérgio", "Cláudia", "Márcia", "Antônio", "Francisco" };
+    private static final String[] LAST_NAMES = { "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira",
+            "Nunes", "Marques", "Machado", "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana",
+            "Teixeira", "Araújo", "Monteiro", "Moura", "Correia", "Pinto" };
+    private static final String[] SPECIALTIES = { "Cardiologia", "Dermatologia", "Pediatria", "Ortopedia",
+            "Ginecologia", "Neurologia", "Oftalmologia", "Clínica Geral" };
+
+    final List<Person> doctors = new ArrayList<>();
+    final List<Person> patients = new ArrayList<>();
+    final LocalDate today = LocalDate.now();
+
+    private final Random random = new Random(42);
+    private int users;
+
+    private SeedData() {
+    }
+
+    static SeedData seed(EntityManagerFactory entityManagerFactory) {
+        SeedData data = new SeedData();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < DOCTORS; i++) {
+                data.doctors.add(data.person(entityManager, PersonRole.DOCTOR));
+            }
+            for (int i = 0; i < PATIENTS; i++) {
+                data.patients.add(data.person(entityManager, PersonRole.PATIENT));
+                flushEvery(entityManager, i);
+            }
+            int count = 0;
+            for (Person doctor : data.doctors) {
+                for (LocalDate day = data.today.minusDays(DAYS_BEFORE); day.isBefore(data.today.plusDays(DAYS_AFTER)); day = day.plusDays(1)) {
+                    if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                        continue;
+                    }
+                    data.appointments(entityManager, doctor, day);
+                    flushEvery(entityManager, count++);
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+        return data;
+    }
+
+    // Evita que o contexto de persistência cresça com dezenas de milhares de entidades
+    private static void flushEvery(EntityManager entityManager, int count) {
+        if (count % 500 == 499) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private Person person(EntityManager entityManager, PersonRole role) {
+        User user = new User();
+        user.setEmail("user" + (users++) + "@lifeplus.test");
+        user.setPassword("Benchmark@123");
+        user.setRole(Role.USER);
+        entityManager.persist(user);
+
+        Person person = new Person();
+        person.setFirstName(pick(FIRST_NAMES));
+        person.setLastName(pick(LAST_NAMES) + " " + pick(LAST_NAMES));
+        person.setRole(role);
+        person.setUser(user);
+        entityManager.persist(person);
+        if (role == PersonRole.DOCTOR) {
+            Doctor doctor = new Doctor(person);
+            doctor.setMedicalSpecialty(pick(SPECIALTIES));
+            person.setDoctor(doctor);
+            entityManager.persist(doctor);
+        }
+        return person;
+    }
+
+    // Consultas de 30 a 60 minutos a partir das 8h, com intervalos livres entre algumas delas
+    private void appointments(EntityManager entityManager, Person doctor, LocalDate day) {
+        LocalDateTime start = day.atTime(8, 0);
+        for (int i = 0; i < APPOINTMENTS_PER_DAY; i++) {
+            LocalDateTime end = start.plusMinutes(random.nextBoolean() ? 30 : 60);
+            Appointment appointment = new Appointment();
+            appointment.setTitle("Consulta");
+            appointment.setAppointmentDate(start);
+            appointment.setEndDate(end);
+            appointment.setStatus(status());
+            appointment.setPersonDoctor(doctor);
+            if (random.nextInt(10) == 0) {
+                appointment.setExternalPatientName(pick(FIRST_NAMES) + " " + pick(LAST_NAMES));
+            } else {
+                appointment.setPersonPatient(patients.get(random.nextInt(patients.size())));
+            }
+            entityManager.persist(appointment);
+            start = end.plusMinutes(random.nextInt(3) * 30L);
+        }
+    }
+
+    private AppointmentStatus status() {
+        int roll = random.nextInt(100);
+        if (roll < 75) {
+            return AppointmentStatus.SCHEDULED;
+        }
+        if (roll < 85) {
+            return AppointmentStatus.CANCELLED;
+        }
+        if (roll < 95) {
+            return AppointmentStatus.SCHEDULING_REQUEST;
+        }
+        return AppointmentStatus.COMPLETED;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
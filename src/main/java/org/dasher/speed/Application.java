@@ -1,6 +1,7 @@
 package org.dasher.speed;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -10,6 +11,7 @@ import java.time.Clock;
 
 @SpringBootApplication
 @Theme("default")
+@Push
 public class Application implements AppShellConfigurator {
 
     @Bean
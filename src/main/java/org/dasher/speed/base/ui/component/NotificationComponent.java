@@ -2,8 +2,8 @@ package org.dasher.speed.base.ui.component;
 
 import java.util.Arrays;
 
-import org.dasher.speed.taskmanagement.notificationApi.Service.NotificationClientService;
 import org.dasher.speed.taskmanagement.service.PersonService;
+import org.dasher.speed.taskmanagement.service.UnreadNotificationCounter;
 
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.contextmenu.ContextMenu;
@@ -14,17 +14,19 @@ import com.vaadin.flow.dom.Style;
 
 public class NotificationComponent {
     
-    private final NotificationClientService notificationClientService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
     private final PersonService personService;
     private final MessagesButton bellButton;
 
     public NotificationComponent() {
         // Acessa os beans Spring através do helper
-        this.notificationClientService = SpringContextHelper.getBean(NotificationClientService.class);
+        this.unreadNotificationCounter = SpringContextHelper.getBean(UnreadNotificationCounter.class);
         this.personService = SpringContextHelper.getBean(PersonService.class);
         this.bellButton = createNotificationButton();
 
-        updateNotifications();
+        // O contador é atualizado por push enquanto o botão estiver na tela
+        UnreadBadgeBinder.bind(bellButton, unreadNotificationCounter,
+            () -> personService.getCurrentPerson().getId().longValue(), bellButton::setUnreadMessages);
     }
 
     public MessagesButton getNotificationButton() {
@@ -46,7 +48,7 @@ public class NotificationComponent {
     public void updateNotifications() {
         try {
             var person = personService.getCurrentPerson();
-            var notifications = notificationClientService.getCountNotificationsByReceiverId(person.getId().longValue());
+            var notifications = unreadNotificationCounter.unreadCount(person.getId().longValue());
             bellButton.setUnreadMessages(notifications);
         } catch (Exception e) {
             // Em caso de erro, define 0 notificações
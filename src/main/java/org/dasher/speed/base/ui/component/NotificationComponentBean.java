@@ -2,8 +2,8 @@ package org.dasher.speed.base.ui.component;
 
 import java.util.Arrays;
 
-import org.dasher.speed.taskmanagement.notificationApi.Service.NotificationClientService;
 import org.dasher.speed.taskmanagement.service.PersonService;
+import org.dasher.speed.taskmanagement.service.UnreadNotificationCounter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -16,12 +16,12 @@ import com.vaadin.flow.dom.Style;
 @Component
 public class NotificationComponentBean {
     
-    private final NotificationClientService notificationClientService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
     private final PersonService personService;
 
     @Autowired
-    public NotificationComponentBean(PersonService personService, NotificationClientService notificationClientService) {
-        this.notificationClientService = notificationClientService;
+    public NotificationComponentBean(PersonService personService, UnreadNotificationCounter unreadNotificationCounter) {
+        this.unreadNotificationCounter = unreadNotificationCounter;
         this.personService = personService;
     }
 
@@ -33,7 +33,8 @@ public class NotificationComponentBean {
         menu.setTarget(bellBtn);
         menu.addItem("My Notifications");
         
-        updateNotifications(bellBtn);
+        UnreadBadgeBinder.bind(bellBtn, unreadNotificationCounter,
+            () -> personService.getCurrentPerson().getId().longValue(), bellBtn::setUnreadMessages);
         
         return bellBtn;
     }
@@ -41,7 +42,7 @@ public class NotificationComponentBean {
     public void updateNotifications(MessagesButton bellButton) {
         try {
             var person = personService.getCurrentPerson();
-            var notifications = notificationClientService.getCountNotificationsByReceiverId(person.getId().longValue());
+            var notifications = unreadNotificationCounter.unreadCount(person.getId().longValue());
             bellButton.setUnreadMessages(notifications);
         } catch (Exception e) {
             bellButton.setUnreadMessages(0);
@@ -2,8 +2,9 @@ package org.dasher.speed.base.ui.component;
 
 import java.util.Arrays;
 
+import org.dasher.speed.taskmanagement.domain.AuthenticatedUser;
 import org.dasher.speed.taskmanagement.domain.User;
-import org.dasher.speed.taskmanagement.notificationApi.Service.NotificationClientService;
+import org.dasher.speed.taskmanagement.service.UnreadNotificationCounter;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -15,14 +16,15 @@ import com.vaadin.flow.dom.Style;
 
 public class NotificationComponentSecure {
     
-    private final NotificationClientService notificationClientService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
     private final MessagesButton bellButton;
 
     public NotificationComponentSecure() {
-        this.notificationClientService = SpringContextHelper.getBean(NotificationClientService.class);
+        this.unreadNotificationCounter = SpringContextHelper.getBean(UnreadNotificationCounter.class);
         this.bellButton = createNotificationButton();
 
-        updateNotifications();
+        UnreadBadgeBinder.bind(bellButton, unreadNotificationCounter,
+            () -> getCurrentUser().getId().longValue(), bellButton::setUnreadMessages);
     }
 
     public MessagesButton getNotificationButton() {
@@ -47,7 +49,7 @@ public class NotificationComponentSecure {
             if (currentUser != null) {
                 // Aqui você pode usar o ID do User diretamente 
                 // ou buscar a Person associada se necessário
-                var notifications = notificationClientService.getCountNotificationsByReceiverId(currentUser.getId().longValue());
+                var notifications = unreadNotificationCounter.unreadCount(currentUser.getId().longValue());
                 bellButton.setUnreadMessages(notifications);
             } else {
                 bellButton.setUnreadMessages(0);
@@ -59,9 +61,14 @@ public class NotificationComponentSecure {
     
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated() 
-            && authentication.getPrincipal() instanceof User) {
-            return (User) authentication.getPrincipal();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser snapshot) {
+            return snapshot.toUser();
         }
         return null;
     }
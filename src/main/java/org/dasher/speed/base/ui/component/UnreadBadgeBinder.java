@@ -0,0 +1,39 @@
+package org.dasher.speed.base.ui.component;
+
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+import org.dasher.speed.taskmanagement.service.UnreadNotificationCounter;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+
+/**
+ * Keeps a notification badge in sync with {@link UnreadNotificationCounter} while the component is
+ * attached. Changes arrive from other threads and are applied through {@link UI#access}, which
+ * pushes them to the browser.
+ */
+final class UnreadBadgeBinder {
+
+    private UnreadBadgeBinder() {
+    }
+
+    static void bind(Component badge, UnreadNotificationCounter counter, LongSupplier receiverId, IntConsumer setUnread) {
+        badge.addAttachListener(attach -> {
+            long id;
+            try {
+                id = receiverId.getAsLong();
+            } catch (Exception e) {
+                // Sem usuário (ou Person) autenticado não há contador para acompanhar
+                setUnread.accept(0);
+                return;
+            }
+            UI ui = attach.getUI();
+            UnreadNotificationCounter.Subscription subscription = counter.subscribe(id, unread -> ui.access(() -> setUnread.accept(unread)));
+            badge.addDetachListener(detach -> {
+                detach.unregisterListener();
+                subscription.cancel();
+            });
+        });
+    }
+}
@@ -6,10 +6,14 @@ import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RabbitMQConfig {
 
     public static final String NOTIFICATION_QUEUE = "notification-queue";
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
 
     @Bean
     public Queue notificationQueue() {
@@ -20,4 +24,10 @@ public class RabbitMQConfig {
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    // Publicações assíncronas: uma virtual thread por envio, sem pool para dimensionar
+    @Bean(name = NOTIFICATION_EXECUTOR, destroyMethod = "close")
+    public ExecutorService notificationExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
 }
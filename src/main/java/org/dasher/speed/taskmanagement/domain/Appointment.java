@@ -2,10 +2,18 @@ package org.dasher.speed.taskmanagement.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    // Agenda e conflitos do médico: igualdade no médico, faixa no início e filtro no fim
+    @Index(name = "idx_appointments_doctor_start_end", columnList = "person_doctor_id, appointment_date, end_date"),
+    // Consultas de um paciente ordenadas por data
+    @Index(name = "idx_appointments_patient_start", columnList = "person_patient_id, appointment_date"),
+    // Próximas consultas do médico filtradas por status
+    @Index(name = "idx_appointments_doctor_status_start", columnList = "person_doctor_id, status, appointment_date")
+})
 public class Appointment {
 
     @Id
@@ -44,6 +52,13 @@ public class Appointment {
     @Column(name = "external_patient_phone")
     private String externalPatientPhone;
 
+    // Controle otimista: edições concorrentes do mesmo agendamento falham em vez de sobrescrever.
+    // O default preenche as linhas que já existiam quando a coluna foi criada
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Construtores
     public Appointment() {}
 
@@ -136,6 +151,10 @@ public class Appointment {
         this.externalPatientPhone = externalPatientPhone;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     // Método utilitário para obter o nome da pessoa agendada
     public String getDisplayPatientName() {
         if (person_patient != null) {
@@ -0,0 +1,15 @@
+package org.dasher.speed.taskmanagement.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time span of an appointment in a doctor's schedule, without the Person graph.
+ * Used by schedule computations that only need start/end per doctor.
+ */
+public record AppointmentInterval(
+    Integer appointmentId,
+    Integer personDoctorId,
+    LocalDateTime start,
+    LocalDateTime end
+) {
+}
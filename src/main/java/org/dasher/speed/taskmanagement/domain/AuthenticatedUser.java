@@ -0,0 +1,53 @@
+package org.dasher.speed.taskmanagement.domain;
+
+import org.dasher.speed.taskmanagement.domain.Enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * What bearer-token authentication needs from a {@link User}: id, email, password hash and role.
+ * Immutable, so one instance can be cached and shared by concurrent requests, unlike the JPA
+ * entity.
+ */
+public record AuthenticatedUser(Long id, String username, String password, Role role) implements UserDetails {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(() -> "ROLE_" + role.name());
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    // Sem o hash da senha, que não deve ir para logs
+    @Override
+    public String toString() {
+        return "AuthenticatedUser[id=" + id + ", username=" + username + ", role=" + role + "]";
+    }
+
+    /**
+     * A detached {@link User} with this id, email and role, for queries that take the entity.
+     * It carries no password.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(username);
+        user.setRole(role);
+        return user;
+    }
+}
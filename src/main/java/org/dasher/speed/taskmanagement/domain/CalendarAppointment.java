@@ -0,0 +1,23 @@
+package org.dasher.speed.taskmanagement.domain;
+
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a calendar entry shows of an appointment: times, status, description and the doctor and
+ * patient names, without the Person graph. {@code patientId} is null when no patient is linked.
+ */
+public record CalendarAppointment(
+    Integer id,
+    LocalDateTime start,
+    LocalDateTime end,
+    AppointmentStatus status,
+    String description,
+    String doctorFirstName,
+    String doctorLastName,
+    Integer patientId,
+    String patientFirstName,
+    String patientLastName
+) {
+}
@@ -32,6 +32,11 @@ public class NotificationMessage {
         this.notificationStatusEnum = notificationStatusEnum;
         this.createdAt = createdAt;
     }
+
+    public NotificationMessage(NotificationMessage other) {
+        this(other.Id, other.senderId, other.receiverId, other.appointmentId, other.title, other.message, other.read,
+                other.notificationStatusEnum, other.createdAt);
+    }
     
     // Getters e Setters
     public long getId() {
@@ -0,0 +1,15 @@
+package org.dasher.speed.taskmanagement.domain;
+
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
+
+/**
+ * Name and role of a person, without the rest of the Person graph.
+ * Used to build the in-memory name search index.
+ */
+public record PersonName(
+    Integer id,
+    String firstName,
+    String lastName,
+    PersonRole role
+) {
+}
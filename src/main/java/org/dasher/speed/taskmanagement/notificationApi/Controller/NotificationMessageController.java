@@ -1,7 +1,9 @@
 package org.dasher.speed.taskmanagement.notificationApi.Controller;
 
 import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
-import org.dasher.speed.taskmanagement.notificationApi.Producer.NotificationMessageProducer;
+import org.dasher.speed.taskmanagement.notificationApi.Producer.NotificationPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,19 +11,27 @@ import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 
+/**
+ * HTTP adapter for external callers. Internal code publishes through {@link NotificationPublisher}.
+ */
 @RestController
 @RequestMapping("/vaadin/notifications")
 public class NotificationMessageController {
 
-    private final NotificationMessageProducer producer;
+    private static final Logger log = LoggerFactory.getLogger(NotificationMessageController.class);
 
-    public NotificationMessageController(NotificationMessageProducer producer) {
-        this.producer = producer;
+    private final NotificationPublisher publisher;
+
+    public NotificationMessageController(NotificationPublisher publisher) {
+        this.publisher = publisher;
     }
 
     @PostMapping
     public ResponseEntity<String> sendNotification(@RequestBody NotificationMessageRecordDto dto) {
-        producer.sendNotification(dto);
+        publisher.publishAsync(dto).exceptionally(e -> {
+            log.warn("Falha ao enviar notificação recebida via HTTP para a fila", e);
+            return null;
+        });
         return ResponseEntity.accepted().body("Notificação enviada para a fila com sucesso.");
     }
 }
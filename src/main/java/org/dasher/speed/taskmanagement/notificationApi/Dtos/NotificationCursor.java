@@ -0,0 +1,10 @@
+package org.dasher.speed.taskmanagement.notificationApi.Dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in a receiver's notification list, which is ordered newest first by
+ * {@code (createdAt, id)}. A page requested "after" a cursor starts with the next older notification.
+ */
+public record NotificationCursor(LocalDateTime createdAt, long id) {
+}
@@ -0,0 +1,15 @@
+package org.dasher.speed.taskmanagement.notificationApi.Dtos;
+
+import java.util.List;
+
+import org.dasher.speed.taskmanagement.domain.NotificationMessage;
+
+/**
+ * One page of notifications; {@code next} is null on the last page.
+ */
+public record NotificationPage(List<NotificationMessage> items, NotificationCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
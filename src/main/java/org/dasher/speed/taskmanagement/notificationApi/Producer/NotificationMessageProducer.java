@@ -2,19 +2,93 @@ package org.dasher.speed.taskmanagement.notificationApi.Producer;
 
 import org.dasher.speed.taskmanagement.config.RabbitMQConfig;
 import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.ConnectionBlockedEvent;
+import org.springframework.amqp.rabbit.connection.ConnectionUnblockedEvent;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
-public class NotificationMessageProducer {
+public class NotificationMessageProducer implements NotificationPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final Executor executor;
+    private final int confirmWindow;
+    private final Duration confirmTimeout;
+
+    // Sinalizado pelo broker (connection.blocked) quando está sem memória ou disco
+    private volatile boolean blocked;
 
-    public NotificationMessageProducer(RabbitTemplate rabbitTemplate) {
+    public NotificationMessageProducer(RabbitTemplate rabbitTemplate,
+                                       @Qualifier(RabbitMQConfig.NOTIFICATION_EXECUTOR) Executor executor,
+                                       @Value("${notifications.publisher.confirm-window:50}") int confirmWindow,
+                                       @Value("${notifications.publisher.confirm-timeout:PT5S}") Duration confirmTimeout) {
+        if (confirmWindow < 1) {
+            throw new IllegalArgumentException("A janela de confirmação deve ser positiva");
+        }
         this.rabbitTemplate = rabbitTemplate;
+        this.executor = executor;
+        this.confirmWindow = confirmWindow;
+        this.confirmTimeout = confirmTimeout;
     }
 
-    public void sendNotification(NotificationMessageRecordDto notificationMessageRecordDto) {
+    @Override
+    public void publish(NotificationMessageRecordDto notificationMessageRecordDto) {
         rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notificationMessageRecordDto);
     }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(NotificationMessageRecordDto notificationMessageRecordDto) {
+        return CompletableFuture.runAsync(() -> publish(notificationMessageRecordDto), executor);
+    }
+
+    /**
+     * Publishes the notifications on a single channel, waiting for the broker's publisher
+     * confirms after every {@code notifications.publisher.confirm-window} messages so that no
+     * more than that many are ever unconfirmed. Stops at the first window that is nacked or not
+     * confirmed within {@code notifications.publisher.confirm-timeout}.
+     */
+    @Override
+    public PublishResult publishAll(List<NotificationMessageRecordDto> notifications) {
+        int[] confirmed = {0};
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (int start = 0; start < notifications.size(); start += confirmWindow) {
+                    int end = Math.min(start + confirmWindow, notifications.size());
+                    for (NotificationMessageRecordDto notification : notifications.subList(start, end)) {
+                        operations.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notification);
+                    }
+                    operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+                    confirmed[0] = end;
+                }
+                return null;
+            });
+            return new PublishResult(confirmed[0], null);
+        } catch (AmqpException e) {
+            return new PublishResult(confirmed[0], e);
+        }
+    }
+
+    @Override
+    public boolean isBlocked() {
+        return blocked;
+    }
+
+    @EventListener
+    public void onConnectionBlocked(ConnectionBlockedEvent event) {
+        blocked = true;
+    }
+
+    @EventListener
+    public void onConnectionUnblocked(ConnectionUnblockedEvent event) {
+        blocked = false;
+    }
 }
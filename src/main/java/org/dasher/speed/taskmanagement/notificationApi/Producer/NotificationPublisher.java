@@ -0,0 +1,31 @@
+package org.dasher.speed.taskmanagement.notificationApi.Producer;
+
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Internal port for publishing notifications to the broker. Application code depends on this
+ * interface, never on the REST controller.
+ */
+public interface NotificationPublisher {
+
+    void publish(NotificationMessageRecordDto notification);
+
+    /**
+     * Publishes the notifications with publisher confirms, stopping at the first unconfirmed one.
+     */
+    PublishResult publishAll(List<NotificationMessageRecordDto> notifications);
+
+    /**
+     * Fire-and-forget variant of {@link #publish}: returns immediately and publishes on a
+     * virtual thread. The future completes exceptionally if the broker rejects the message.
+     */
+    CompletableFuture<Void> publishAsync(NotificationMessageRecordDto notification);
+
+    /**
+     * Whether the broker is currently applying flow control to the connection.
+     */
+    boolean isBlocked();
+}
@@ -0,0 +1,14 @@
+package org.dasher.speed.taskmanagement.notificationApi.Producer;
+
+import org.springframework.amqp.AmqpException;
+
+/**
+ * Outcome of a batch publish: the first {@code confirmed} messages were acknowledged by the
+ * broker; when {@code failure} is set, the remaining ones must be sent again.
+ */
+public record PublishResult(int confirmed, AmqpException failure) {
+
+    public boolean isComplete() {
+        return failure == null;
+    }
+}
@@ -0,0 +1,112 @@
+package org.dasher.speed.taskmanagement.notificationApi.Service;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Fails calls to the notification service fast once it keeps failing. After
+ * {@code failureThreshold} consecutive I/O errors or 5xx responses the circuit opens and calls are
+ * rejected without touching the network; after {@code openDuration} a single trial call is let
+ * through and its outcome closes or reopens the circuit.
+ * <p>
+ * State is guarded by a {@link ReentrantLock} rather than {@code synchronized}: every request
+ * passes through here, and a virtual thread waiting on a monitor pins its carrier thread.
+ * </p>
+ */
+final class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerInterceptor.class);
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    CircuitBreakerInterceptor(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!tryAcquire()) {
+            throw new ResourceAccessException("Serviço de notificações indisponível (circuito aberto): " + request.getURI());
+        }
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response.getStatusCode().is5xxServerError()) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            onFailure();
+            throw e;
+        }
+    }
+
+    private boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            // Aberto há tempo suficiente: deixa passar uma única chamada de teste
+            if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+                state = State.HALF_OPEN;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess() {
+        lock.lock();
+        try {
+            if (state != State.CLOSED) {
+                log.info("Serviço de notificações respondeu novamente, circuito fechado");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                log.warn("Serviço de notificações falhou {} vezes seguidas, circuito aberto por {}",
+                        consecutiveFailures, openDuration);
+                state = State.OPEN;
+                openedAt = clock.instant();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
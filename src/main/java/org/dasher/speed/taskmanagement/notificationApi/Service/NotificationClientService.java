@@ -1,33 +1,137 @@
 package org.dasher.speed.taskmanagement.notificationApi.Service;
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.dasher.speed.taskmanagement.config.RabbitMQConfig;
 import org.dasher.speed.taskmanagement.domain.NotificationMessage;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationCursor;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationPage;
 import org.dasher.speed.taskmanagement.security.JwtTokenService;
 import org.dasher.speed.taskmanagement.security.SecurityService;
+import org.dasher.speed.taskmanagement.service.NotificationPublishedEvent;
 
+/**
+ * Client for the notification microservice at {@code notification.service.url}.
+ * <p>
+ * Requests go through a shared JDK {@link HttpClient} (keep-alive connections, connect and read
+ * timeouts) and a circuit breaker. The RestTemplate comes from Spring Boot's builder, so each call
+ * is recorded in the {@code http.client.requests} metric tagged with its URI template.
+ * </p>
+ * <p>
+ * The newest part of each receiver's notification list is cached locally, in list order, and grows
+ * as pages past its end are fetched; fetching the whole list caches all of it. Until the service
+ * offers {@code /page}, {@code notification.client.server-paging.enabled} stays off and pages are
+ * cut locally from the whole list. Notifications without {@code createdAt} come last. The cache holds its
+ * own copies, which are replaced rather than changed: callers always get fresh copies, and
+ * {@link #updateNotification} swaps the entry for a copy of what was sent once the service accepts
+ * it. The list is dropped when a new notification for that receiver is published;
+ * {@code notification.client.list-cache.ttl} bounds how stale it can get otherwise.
+ * </p>
+ * <p>
+ * The {@code *Async} variants run the same calls on virtual threads, carrying the caller's
+ * security context so the outbound JWT is still issued for the current user. With
+ * {@code spring.threads.virtual.enabled} the HttpClient's own async work uses them as well.
+ * </p>
+ */
+@Service
 public class NotificationClientService {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationClientService.class);
+
+    private static final String NOTIFICATIONS_PATH = "/notification/api/notifications";
+    private static final Comparator<NotificationMessage> NEWEST_FIRST =
+            Comparator.comparing(NotificationMessage::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(NotificationMessage::getId, Comparator.reverseOrder());
+    private static final Comparator<NotificationCursor> LIST_ORDER =
+            Comparator.comparing(NotificationCursor::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(NotificationCursor::id, Comparator.reverseOrder());
+
     private final RestTemplate restTemplate;
-    private final String url = "http://localhost:8080/notification/api/notifications";
     private final JwtTokenService jwtTokenService;
     private final SecurityService securityService;
+    private final Executor asyncExecutor;
+    private final boolean serverPaging;
+    // Tokens já assinados por usuário, reutilizados até pouco antes de expirarem
+    private final Cache<String, String> outboundTokens;
+    // Início da lista de cada destinatário, da mais nova para a mais antiga; nunca sai daqui sem cópia
+    private final Cache<Long, CachedList> notificationsByReceiver;
     
     @Autowired
-    public NotificationClientService(JwtTokenService jwtTokenService, SecurityService securityService) {
+    public NotificationClientService(JwtTokenService jwtTokenService, SecurityService securityService,
+                                     RestTemplateBuilder restTemplateBuilder, Clock clock,
+                                     @Qualifier(RabbitMQConfig.NOTIFICATION_EXECUTOR) Executor executor,
+                                     @Value("${notification.service.url:http://localhost:8080}") String baseUrl,
+                                     @Value("${notification.client.connect-timeout:PT2S}") Duration connectTimeout,
+                                     @Value("${notification.client.read-timeout:PT3S}") Duration readTimeout,
+                                     @Value("${notification.client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                     @Value("${notification.client.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+                                     @Value("${notification.client.token-refresh-margin:PT1M}") Duration tokenRefreshMargin,
+                                     @Value("${notification.client.list-cache.ttl:PT5M}") Duration listCacheTtl,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                     @Value("${notification.client.server-paging.enabled:false}") boolean serverPaging) {
         this.jwtTokenService = jwtTokenService;
+        this.serverPaging = serverPaging;
         this.securityService = securityService;
-        this.restTemplate = createRestTemplateWithJwtInterceptor();
+        this.asyncExecutor = new DelegatingSecurityContextExecutor(executor);
+        this.outboundTokens = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfter(new TokenExpiry(tokenRefreshMargin))
+                .build();
+        this.notificationsByReceiver = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(listCacheTtl)
+                .build();
+        this.restTemplate = restTemplateBuilder
+                .rootUri(baseUrl)
+                .requestFactory(() -> createRequestFactory(connectTimeout, readTimeout, virtualThreads ? executor : null))
+                // O circuito vem primeiro: com ele aberto nem o token é gerado
+                .additionalInterceptors(new CircuitBreakerInterceptor(failureThreshold, openDuration, clock), jwtInterceptor())
+                .build();
     }
-    
-    private RestTemplate createRestTemplateWithJwtInterceptor() {
-        RestTemplate template = new RestTemplate();
-        template.getInterceptors().add(jwtInterceptor());
-        return template;
+
+    private static JdkClientHttpRequestFactory createRequestFactory(Duration connectTimeout, Duration readTimeout,
+                                                                    Executor executor) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout);
+        if (executor != null) {
+            // Modo de threads virtuais: o trabalho assíncrono do HttpClient sai do pool de threads de plataforma
+            builder.executor(executor);
+        }
+        HttpClient httpClient = builder.build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
     }
     
     private ClientHttpRequestInterceptor jwtInterceptor() {
@@ -35,43 +139,271 @@ public class NotificationClientService {
             try {
                 var authenticatedUser = securityService.getAuthenticatedUser();
                 if (authenticatedUser != null) {
-                    String token = jwtTokenService.generateToken(authenticatedUser);
+                    String token = outboundTokens.get(authenticatedUser.getUsername(),
+                            username -> jwtTokenService.generateToken(authenticatedUser));
                     request.getHeaders().set("Authorization", "Bearer " + token);
                 }
             } catch (Exception e) {
-                // Log the error but continue with the request
-                System.err.println("Error adding JWT token to request: " + e.getMessage());
+                // Segue sem o token; o serviço responde 401 e o erro aparece para quem chamou
+                log.warn("Não foi possível adicionar o token JWT à requisição {}", request.getURI(), e);
             }
             return execution.execute(request, body);
         };
     }
     
+    /**
+     * The receiver's notifications, newest first. Served from the local cache when it holds the
+     * whole list; the returned list is read-only, its notifications are copies the caller may change.
+     */
     public List<NotificationMessage> getAllNotificationsByReceiverId(Long ReceiverId) {
-        String url = UriComponentsBuilder
-                .fromUriString(this.url)
-                .queryParam("userId", ReceiverId)
-                .toUriString();
+        return copiesOf(completeList(ReceiverId).items());
+    }
+
+    private CachedList completeList(Long receiverId) {
+        CachedList cached = notificationsByReceiver.getIfPresent(receiverId);
+        if (cached != null && cached.complete()) {
+            return cached;
+        }
+        NotificationMessage[] response = restTemplate.getForObject(NOTIFICATIONS_PATH + "?userId={userId}",
+                NotificationMessage[].class, receiverId);
 
-        NotificationMessage[] response = restTemplate.getForObject(url, NotificationMessage[].class);
+        List<NotificationMessage> sorted = Arrays.stream(response)
+                .sorted(NEWEST_FIRST)
+                .toList();
+        CachedList loaded = new CachedList(sorted, true);
+        notificationsByReceiver.put(receiverId, loaded);
+        return loaded;
+    }
 
+    /**
+     * Up to {@code limit} notifications following {@code after} (or from the newest when null),
+     * optionally only unread ones and/or those whose title or message contains {@code filter},
+     * ignoring case.
+     * <p>
+     * Without server paging the whole list is fetched once and every page is cut from it locally.
+     * With it, matches inside the cached part of the receiver's list are served locally; only the
+     * rest is requested from the notification service, one page at a time. Unfiltered pages that continue
+     * the cached part are appended to it, so scrolling through the list fills the cache and later
+     * pages, filters and reopened views are answered from it.
+     * </p>
+     */
+    public NotificationPage getNotificationsPage(Long receiverId, NotificationCursor after, int limit,
+                                                 boolean unreadOnly, String filter) {
+        // Sem o /page no serviço, a lista inteira vem uma vez e fica completa no cache
+        CachedList cached = serverPaging ? notificationsByReceiver.getIfPresent(receiverId) : completeList(receiverId);
+        String query = filter == null || filter.isBlank() ? null : filter.trim();
+        String term = query == null ? null : query.toLowerCase(Locale.ROOT);
+        List<NotificationMessage> local = cached == null ? List.of() : cached.items().stream()
+                .filter(notification -> after == null || isAfter(notification, after))
+                .filter(notification -> !unreadOnly || !notification.isRead())
+                .filter(notification -> term == null || matches(notification, term))
+                .limit(limit + 1L)
+                .toList();
+        if (cached != null && (cached.complete() || local.size() > limit)) {
+            return pageOf(copiesOf(local), limit);
+        }
+
+        // O cache acabou antes de completar a página: o resto vem do serviço, a partir do fim do cache
+        NotificationCursor end = cached == null ? null : cached.end();
+        boolean continuesCache = end != null && (after == null || LIST_ORDER.compare(after, end) <= 0);
+        NotificationCursor from = continuesCache ? end : after;
+        int missing = limit + 1 - local.size();
+        List<NotificationMessage> fetched = requestPage(receiverId, from, missing, unreadOnly, query);
+
+        if (!unreadOnly && term == null && (continuesCache || (cached == null && after == null))) {
+            List<NotificationMessage> items = new ArrayList<>(cached == null ? List.of() : cached.items());
+            items.addAll(fetched);
+            CachedList extended = new CachedList(List.copyOf(items), fetched.size() < missing);
+            // Só estende a lista que foi lida: se ela foi invalidada ou trocada no meio, a nova vale
+            if (cached == null) {
+                notificationsByReceiver.asMap().putIfAbsent(receiverId, extended);
+            } else {
+                notificationsByReceiver.asMap().replace(receiverId, cached, extended);
+            }
+            fetched = copiesOf(fetched);
+        }
+        List<NotificationMessage> page = new ArrayList<>(copiesOf(local));
+        page.addAll(fetched);
+        return pageOf(page, limit);
+    }
+
+    public CompletableFuture<NotificationPage> getNotificationsPageAsync(Long receiverId, NotificationCursor after,
+                                                                         int limit, boolean unreadOnly, String filter) {
+        return CompletableFuture.supplyAsync(() -> getNotificationsPage(receiverId, after, limit, unreadOnly, filter),
+                asyncExecutor);
+    }
+
+    private List<NotificationMessage> requestPage(Long receiverId, NotificationCursor after, int limit,
+                                                  boolean unreadOnly, String query) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromPath(NOTIFICATIONS_PATH + "/page")
+                .queryParam("userId", "{userId}")
+                .queryParam("limit", "{limit}")
+                .queryParam("unreadOnly", "{unreadOnly}");
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("userId", receiverId);
+        variables.put("limit", limit);
+        variables.put("unreadOnly", unreadOnly);
+        if (query != null) {
+            uri.queryParam("q", "{q}");
+            variables.put("q", query);
+        }
+        if (after != null) {
+            // Sem data, o cursor está entre as notificações sem data, que vêm por último
+            if (after.createdAt() != null) {
+                uri.queryParam("afterCreatedAt", "{afterCreatedAt}");
+                variables.put("afterCreatedAt", after.createdAt());
+            }
+            uri.queryParam("afterId", "{afterId}");
+            variables.put("afterId", after.id());
+        }
+        NotificationMessage[] response = restTemplate.getForObject(uri.build().toUriString(),
+                NotificationMessage[].class, variables);
         return Arrays.asList(response);
     }
 
-    public Integer getCountNotificationsByReceiverId(Long ReceiverId) {
-        String url = UriComponentsBuilder
-                .fromUriString(this.url + "/count")
-                .queryParam("userId", ReceiverId)
-                .toUriString();
+    // Recebe um item a mais que o limite: se ele veio, existe a próxima página
+    private static NotificationPage pageOf(List<NotificationMessage> itemsPlusOne, int limit) {
+        if (itemsPlusOne.size() <= limit) {
+            return new NotificationPage(itemsPlusOne, null);
+        }
+        List<NotificationMessage> items = itemsPlusOne.subList(0, limit);
+        return new NotificationPage(items, cursorOf(items.get(limit - 1)));
+    }
+
+    private static NotificationCursor cursorOf(NotificationMessage notification) {
+        return new NotificationCursor(notification.getCreatedAt(), notification.getId());
+    }
+
+    private static boolean isAfter(NotificationMessage notification, NotificationCursor cursor) {
+        return LIST_ORDER.compare(cursorOf(notification), cursor) > 0;
+    }
+
+    private static List<NotificationMessage> copiesOf(List<NotificationMessage> notifications) {
+        return notifications.stream().map(NotificationMessage::new).toList();
+    }
+
+    private static boolean matches(NotificationMessage notification, String term) {
+        return contains(notification.getTitle(), term) || contains(notification.getMessage(), term);
+    }
 
-        var response = restTemplate.getForObject(url, Integer.class);
-        return response;
+    private static boolean contains(String text, String term) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(term);
+    }
+
+    public Integer getCountNotificationsByReceiverId(Long ReceiverId) {
+        return restTemplate.getForObject(NOTIFICATIONS_PATH + "/count?userId={userId}", Integer.class, ReceiverId);
     }
 
     public void updateNotification(NotificationMessage notification) {
-        String url = UriComponentsBuilder
-                .fromUriString(this.url + "/" + notification.getId())
-                .toUriString();
+        try {
+            restTemplate.put(NOTIFICATIONS_PATH + "/{id}", notification, notification.getId());
+        } catch (RuntimeException e) {
+            // A falha pode ter chegado depois de o serviço gravar: a próxima leitura busca do serviço
+            notificationsByReceiver.invalidate(notification.getReceiverId());
+            throw e;
+        }
+        // Write-through: troca a entrada por uma cópia do que foi gravado, numa lista nova e na mesma ordem
+        NotificationMessage stored = new NotificationMessage(notification);
+        notificationsByReceiver.asMap().computeIfPresent(stored.getReceiverId(), (receiverId, cached) ->
+                cached.withItems(cached.items().stream()
+                        .map(existing -> existing.getId() == stored.getId() ? stored : existing)
+                        .toList()));
+    }
+
+    /**
+     * Marks every notification of the receiver as read in a single request, however many there are.
+     * Services without {@code /read-all} answer 404 or 405; then each unread notification is updated
+     * on its own.
+     */
+    public void markAllAsRead(Long receiverId) {
+        try {
+            restTemplate.patchForObject(NOTIFICATIONS_PATH + "/read-all?userId={userId}", null, Void.class, receiverId);
+        } catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed e) {
+            log.debug("Serviço sem /read-all ({}); marcando as notificações uma a uma", e.getStatusCode());
+            // Cada PUT já atualiza o cache, e uma falha no meio o invalida
+            completeList(receiverId).items().stream()
+                    .filter(notification -> !notification.isRead())
+                    .map(notification -> {
+                        NotificationMessage read = new NotificationMessage(notification);
+                        read.setRead(true);
+                        return read;
+                    })
+                    .forEach(this::updateNotification);
+            return;
+        } catch (RuntimeException e) {
+            notificationsByReceiver.invalidate(receiverId);
+            throw e;
+        }
+        notificationsByReceiver.asMap().computeIfPresent(receiverId, (id, cached) ->
+                cached.withItems(cached.items().stream()
+                        .map(existing -> {
+                            NotificationMessage read = new NotificationMessage(existing);
+                            read.setRead(true);
+                            return read;
+                        })
+                        .toList()));
+    }
+
+    public CompletableFuture<Void> markAllAsReadAsync(Long receiverId) {
+        return CompletableFuture.runAsync(() -> markAllAsRead(receiverId), asyncExecutor);
+    }
+
+    // Uma nova notificação foi confirmada pelo broker: a lista em cache do destinatário ficou velha
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationPublished(NotificationPublishedEvent event) {
+        notificationsByReceiver.invalidate(event.receiverId());
+    }
+
+    public CompletableFuture<List<NotificationMessage>> getAllNotificationsByReceiverIdAsync(Long receiverId) {
+        return CompletableFuture.supplyAsync(() -> getAllNotificationsByReceiverId(receiverId), asyncExecutor);
+    }
+
+    public CompletableFuture<Integer> getCountNotificationsByReceiverIdAsync(Long receiverId) {
+        return CompletableFuture.supplyAsync(() -> getCountNotificationsByReceiverId(receiverId), asyncExecutor);
+    }
+
+    public CompletableFuture<Void> updateNotificationAsync(NotificationMessage notification) {
+        return CompletableFuture.runAsync(() -> updateNotification(notification), asyncExecutor);
+    }
+
+    /**
+     * The newest notifications of one receiver, in list order; {@code complete} when nothing older
+     * exists on the service.
+     */
+    private record CachedList(List<NotificationMessage> items, boolean complete) {
+
+        NotificationCursor end() {
+            return items.isEmpty() ? null : cursorOf(items.get(items.size() - 1));
+        }
+
+        CachedList withItems(List<NotificationMessage> newItems) {
+            return new CachedList(newItems, complete);
+        }
+    }
+
+    private final class TokenExpiry implements Expiry<String, String> {
+
+        private final Duration refreshMargin;
+
+        private TokenExpiry(Duration refreshMargin) {
+            this.refreshMargin = refreshMargin;
+        }
+
+        @Override
+        public long expireAfterCreate(String username, String token, long currentTime) {
+            Date expiration = jwtTokenService.extractClaim(token, Claims::getExpiration);
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis() - refreshMargin.toMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String username, String token, long currentTime, long currentDuration) {
+            return expireAfterCreate(username, token, currentTime);
+        }
 
-        restTemplate.put(url, notification);
+        @Override
+        public long expireAfterRead(String username, String token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -1,69 +1,157 @@
 package org.dasher.speed.taskmanagement.repository;
 
 import org.dasher.speed.taskmanagement.domain.Appointment;
-import org.dasher.speed.taskmanagement.domain.Doctor;
+import org.dasher.speed.taskmanagement.domain.AppointmentInterval;
+import org.dasher.speed.taskmanagement.domain.CalendarAppointment;
 import org.dasher.speed.taskmanagement.domain.Person;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Integer>, JpaSpecificationExecutor<Appointment> {
+
+    // As consultas abaixo filtram por id numa subconsulta sobre appointments: com o médico ou o paciente
+    // no JOIN, um filtro direto na associação vira condição na tabela person e o banco acaba varrendo
+    // appointments em vez de usar os índices de médico/paciente
+
+    // Ids dos agendamentos em que :person é médico ou paciente. A união deixa cada lado usar o seu
+    // índice; um OR entre as duas colunas obriga o banco a varrer a tabela inteira
+    String RELATED_TO_PERSON_IDS =
+        "SELECT ad.id FROM Appointment ad WHERE ad.person_doctor = :person " +
+        "UNION ALL " +
+        "SELECT ap.id FROM Appointment ap WHERE ap.person_patient = :person";
+
+    // Médico e paciente com os um-para-um que Person carrega sempre (usuário, médico, paciente):
+    // sem eles o Hibernate faria um SELECT extra por pessoa de cada linha da página
+    String FETCH_PEOPLE_FOR_GRID =
+        "LEFT JOIN FETCH a.person_doctor pd " +
+        "LEFT JOIN FETCH pd.user LEFT JOIN FETCH pd.doctor LEFT JOIN FETCH pd.patient " +
+        "LEFT JOIN FETCH a.person_patient pp " +
+        "LEFT JOIN FETCH pp.user LEFT JOIN FETCH pp.doctor LEFT JOIN FETCH pp.patient";
     
-    @Query("SELECT DISTINCT a FROM Appointment a " +
+    // Agendamentos do médico pela chave person_doctor_id, já resolvida a partir do Doctor
+    @Query("SELECT a FROM Appointment a " +
            "LEFT JOIN FETCH a.person_doctor pd " +
            "LEFT JOIN FETCH a.person_patient pp " +
-           "WHERE pd IN (SELECT d.person FROM Doctor d WHERE d = :doctor) " +
+           "WHERE a.id IN (SELECT x.id FROM Appointment x WHERE x.person_doctor.id = :personDoctorId) " +
            "ORDER BY a.appointmentDate")
-    List<Appointment> findByDoctor(@Param("doctor") Doctor doctor);
+    List<Appointment> findByDoctor(@Param("personDoctorId") Integer personDoctorId);
     
     // Buscar agendamentos onde uma pessoa é paciente
-    @Query("SELECT DISTINCT a FROM Appointment a " +
+    @Query("SELECT a FROM Appointment a " +
            "LEFT JOIN FETCH a.person_doctor pd " +
            "LEFT JOIN FETCH a.person_patient pp " +
-           "WHERE a.person_patient = :person " +
+           "WHERE a.id IN (SELECT x.id FROM Appointment x WHERE x.person_patient = :person) " +
            "ORDER BY a.appointmentDate")
     List<Appointment> findByPerson(@Param("person") Person person);
     
-    // Buscar agendamentos por médico em um período específico
+    // Buscar agendamentos por médico que se sobrepõem a um período específico
     @Query("SELECT a FROM Appointment a " +
-           "WHERE a.person_doctor IN (SELECT d.person FROM Doctor d WHERE d = :doctor) " +
-           "AND a.appointmentDate >= :startDate AND a.appointmentDate <= :endDate " +
+           "LEFT JOIN FETCH a.person_doctor pd " +
+           "LEFT JOIN FETCH a.person_patient pp " +
+           "WHERE a.id IN (SELECT x.id FROM Appointment x WHERE x.person_doctor.id = :personDoctorId " +
+           "AND x.appointmentDate < :endDate AND x.endDate > :startDate) " +
+           "ORDER BY a.appointmentDate")
+    List<Appointment> findByDoctorAndDateRange(@Param("personDoctorId") Integer personDoctorId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    // Mesma faixa para o calendário, só com as colunas exibidas e sem montar as entidades Person
+    @Query("SELECT new org.dasher.speed.taskmanagement.domain.CalendarAppointment(" +
+           "a.id, a.appointmentDate, a.endDate, a.status, a.description, " +
+           "pd.firstName, pd.lastName, pp.id, pp.firstName, pp.lastName) " +
+           "FROM Appointment a " +
+           "JOIN a.person_doctor pd " +
+           "LEFT JOIN a.person_patient pp " +
+           "WHERE a.id IN (SELECT x.id FROM Appointment x WHERE x.person_doctor.id = :personDoctorId " +
+           "AND x.appointmentDate < :endDate AND x.endDate > :startDate) " +
+           "ORDER BY a.appointmentDate")
+    List<CalendarAppointment> findCalendarByDoctorAndDateRange(@Param("personDoctorId") Integer personDoctorId,
+                                                               @Param("startDate") LocalDateTime startDate,
+                                                               @Param("endDate") LocalDateTime endDate);
+    
+    // Buscar agendamentos de um paciente que se sobrepõem a um período específico
+    @Query("SELECT a FROM Appointment a " +
+           "LEFT JOIN FETCH a.person_doctor pd " +
+           "LEFT JOIN FETCH a.person_patient pp " +
+           "WHERE a.id IN (SELECT x.id FROM Appointment x WHERE x.person_patient = :person " +
+           "AND x.appointmentDate < :endDate AND x.endDate > :startDate) " +
            "ORDER BY a.appointmentDate")
-    List<Appointment> findByDoctorAndDateRange(@Param("doctor") Doctor doctor,
+    List<Appointment> findByPersonAndDateRange(@Param("person") Person person,
                                                @Param("startDate") LocalDateTime startDate,
                                                @Param("endDate") LocalDateTime endDate);
     
+    // Agendamentos dos pacientes encontrados pelo índice de nomes
     @Query("SELECT a FROM Appointment a " +
+           "LEFT JOIN FETCH a.person_doctor pd " +
            "LEFT JOIN FETCH a.person_patient pp " +
-           "WHERE pp IS NOT NULL " +
-           "AND pp.role = org.dasher.speed.taskmanagement.domain.Enums.PersonRole.PATIENT " +
-           "AND (LOWER(pp.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(pp.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Appointment> searchAppointmentsByPatient(@Param("searchTerm") String searchTerm);
+           "WHERE a.id IN (SELECT x.id FROM Appointment x WHERE x.person_patient.id IN :patientIds)")
+    List<Appointment> findByPatientIds(@Param("patientIds") Collection<Integer> patientIds);
+
+    @Query("SELECT a FROM Appointment a " + FETCH_PEOPLE_FOR_GRID +
+           " WHERE a.id IN (SELECT x.id FROM Appointment x WHERE x.person_patient.id IN :patientIds)")
+    Slice<Appointment> findByPatientIds(@Param("patientIds") Collection<Integer> patientIds, Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.person_patient.id IN :patientIds")
+    long countByPatientIds(@Param("patientIds") Collection<Integer> patientIds);
 
-    // Buscar agendamentos por médico em uma data específica
+    // Agendamentos do médico que começam em [from, to). A faixa é aplicada direto na coluna, sem
+    // funções como DATE(), para o banco percorrer só o trecho (médico, início) do índice
     @Query("SELECT a FROM Appointment a WHERE a.person_doctor = :person_doctor " +
-           "AND DATE(a.appointmentDate) = DATE(:date) " +
+           "AND a.appointmentDate >= :from AND a.appointmentDate < :to " +
            "ORDER BY a.appointmentDate")
-    List<Appointment> findByDoctorAndDate(@Param("person_doctor") Person person_doctor,
-                                          @Param("date") LocalDateTime date);
+    List<Appointment> findByDoctorStartingIn(@Param("person_doctor") Person person_doctor,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
     
-    // Verificar conflitos de horário para um médico
-    @Query("SELECT a FROM Appointment a WHERE a.person_doctor = :person_doctor " +
-           "AND a.id != :excludeId " +
-           "AND ((a.appointmentDate <= :startTime AND a.endDate > :startTime) " +
-           "OR (a.appointmentDate < :endTime AND a.endDate >= :endTime) " +
-           "OR (a.appointmentDate >= :startTime AND a.endDate <= :endTime))")
-    List<Appointment> findConflictingAppointments(@Param("person_doctor") Person person_doctor,
-                                                   @Param("startTime") LocalDateTime startTime,
-                                                   @Param("endTime") LocalDateTime endTime,
-                                                   @Param("excludeId") Integer excludeId);
+    // Verificar conflitos de horário para um médico: existe agendamento ativo que se sobrepõe a
+    // [startTime, endTime)? O EXISTS deixa o banco parar no primeiro encontrado
+    @Query("SELECT CASE WHEN EXISTS (SELECT 1 FROM Appointment a WHERE a.person_doctor = :person_doctor " +
+           "AND a.id <> :excludeId " +
+           "AND a.appointmentDate < :endTime AND a.endDate > :startTime " +
+           "AND (a.status IS NULL OR a.status NOT IN (" +
+           "org.dasher.speed.taskmanagement.domain.Appointment$AppointmentStatus.CANCELLED, " +
+           "org.dasher.speed.taskmanagement.domain.Appointment$AppointmentStatus.NO_SHOW))) " +
+           "THEN true ELSE false END")
+    boolean existsConflict(@Param("person_doctor") Person person_doctor,
+                           @Param("startTime") LocalDateTime startTime,
+                           @Param("endTime") LocalDateTime endTime,
+                           @Param("excludeId") Integer excludeId);
+    
+    // Intervalos ativos de um médico a partir de uma data (carga do índice de agenda)
+    @Query("SELECT new org.dasher.speed.taskmanagement.domain.AppointmentInterval(" +
+           "a.id, a.person_doctor.id, a.appointmentDate, a.endDate) " +
+           "FROM Appointment a WHERE a.person_doctor = :person_doctor " +
+           "AND a.endDate > :from " +
+           "AND (a.status IS NULL OR a.status NOT IN (" +
+           "org.dasher.speed.taskmanagement.domain.Appointment$AppointmentStatus.CANCELLED, " +
+           "org.dasher.speed.taskmanagement.domain.Appointment$AppointmentStatus.NO_SHOW)) " +
+           "ORDER BY a.appointmentDate")
+    List<AppointmentInterval> findActiveIntervalsByDoctor(@Param("person_doctor") Person person_doctor,
+                                                          @Param("from") LocalDateTime from);
+    
+    // Intervalos ativos de vários médicos em uma janela, ordenados por médico e início
+    @Query("SELECT new org.dasher.speed.taskmanagement.domain.AppointmentInterval(" +
+           "a.id, a.person_doctor.id, a.appointmentDate, a.endDate) " +
+           "FROM Appointment a WHERE a.person_doctor.id IN :doctorIds " +
+           "AND a.appointmentDate < :to AND a.endDate > :from " +
+           "AND (a.status IS NULL OR a.status NOT IN (" +
+           "org.dasher.speed.taskmanagement.domain.Appointment$AppointmentStatus.CANCELLED, " +
+           "org.dasher.speed.taskmanagement.domain.Appointment$AppointmentStatus.NO_SHOW)) " +
+           "ORDER BY a.person_doctor.id, a.appointmentDate")
+    List<AppointmentInterval> findActiveIntervalsByDoctorsInRange(@Param("doctorIds") Collection<Integer> doctorIds,
+                                                                  @Param("from") LocalDateTime from,
+                                                                  @Param("to") LocalDateTime to);
     
     // Buscar próximos agendamentos por médico
     @Query("SELECT a FROM Appointment a WHERE a.person_doctor = :person_doctor " +
@@ -80,16 +168,30 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
            "ORDER BY a.appointmentDate")
     List<Appointment> findAllWithDetails();
 
+    // Página de todos os agendamentos, ordenada pelo Pageable, com médico e paciente na mesma consulta
+    @Query("SELECT a FROM Appointment a " + FETCH_PEOPLE_FOR_GRID)
+    Slice<Appointment> findAllWithDetails(Pageable pageable);
+
     @Query("SELECT a FROM Appointment a " +
            "LEFT JOIN FETCH a.person_doctor pd " +
            "LEFT JOIN FETCH a.person_patient pp " +
            "WHERE a.id = :id")
     Optional<Appointment> findByIdWithDetails(@Param("id") long id);
     
-    @Query("SELECT DISTINCT a FROM Appointment a " +
+    @Query("SELECT a FROM Appointment a " +
            "LEFT JOIN FETCH a.person_doctor pd " +
            "LEFT JOIN FETCH a.person_patient pp " +
-           "WHERE a.person_doctor = :person OR a.person_patient = :person " +
+           "WHERE a.id IN (" + RELATED_TO_PERSON_IDS + ") " +
            "ORDER BY a.appointmentDate")
     List<Appointment> findRelatedToPersonAsAny(@Param("person") Person person);
+    
+    @Query("SELECT a FROM Appointment a " +
+           "LEFT JOIN FETCH a.person_doctor pd " +
+           "LEFT JOIN FETCH a.person_patient pp " +
+           "WHERE a.id IN (" + RELATED_TO_PERSON_IDS + ") " +
+           "AND a.appointmentDate < :endDate AND a.endDate > :startDate " +
+           "ORDER BY a.appointmentDate")
+    List<Appointment> findRelatedToPersonAsAnyInRange(@Param("person") Person person,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate);
 } 
\ No newline at end of file
@@ -0,0 +1,92 @@
+package org.dasher.speed.taskmanagement.repository;
+
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Building blocks for appointment searches whose filters are optional. Callers combine only the
+ * filters that were supplied, so the database never sees a {@code (:x IS NULL OR ...)} predicate
+ * and can pick an index for the ones that are there.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    /**
+     * Appointments in which {@code person} is the doctor or the patient. Same union as
+     * {@link AppointmentRepository#RELATED_TO_PERSON_IDS}: each side uses its own index.
+     */
+    public static Specification<Appointment> relatedTo(Person person) {
+        return (root, query, cb) -> {
+            Subquery<Integer> asDoctor = query.subquery(Integer.class);
+            Root<Appointment> doctorSide = asDoctor.from(Appointment.class);
+            asDoctor.select(doctorSide.get("id")).where(cb.equal(doctorSide.get("person_doctor"), person));
+
+            Subquery<Integer> asPatient = query.subquery(Integer.class);
+            Root<Appointment> patientSide = asPatient.from(Appointment.class);
+            asPatient.select(patientSide.get("id")).where(cb.equal(patientSide.get("person_patient"), person));
+
+            return root.get("id").in(((HibernateCriteriaBuilder) cb).unionAll(asDoctor, asPatient));
+        };
+    }
+
+    public static Specification<Appointment> patientIn(Collection<Integer> patientIds) {
+        return (root, query, cb) -> root.get("person_patient").get("id").in(patientIds);
+    }
+
+    public static Specification<Appointment> startingFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("appointmentDate"), from);
+    }
+
+    public static Specification<Appointment> startingBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("appointmentDate"), to);
+    }
+
+    public static Specification<Appointment> withStatus(AppointmentStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Fetches the doctor and the patient with the appointments, ordered by {@code sort}, whose
+     * properties may go through {@code person_doctor} or {@code person_patient}. Left out of count
+     * queries, where a fetch join is not allowed.
+     */
+    public static Specification<Appointment> withDetails(Sort sort) {
+        return (root, query, cb) -> {
+            if (query.getResultType() == Long.class || query.getResultType() == long.class) {
+                return null;
+            }
+            Map<String, Path<?>> fetched = Map.of(
+                "person_doctor", (Path<?>) root.fetch("person_doctor", JoinType.LEFT),
+                "person_patient", (Path<?>) root.fetch("person_patient", JoinType.LEFT));
+            // A ordenação é montada aqui: o Spring Data leria o "_" de person_doctor como separador de propriedades
+            List<Order> orders = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                String[] segments = order.getProperty().split("\\.", 2);
+                Path<?> path = segments.length == 2 && fetched.containsKey(segments[0])
+                    ? fetched.get(segments[0]).get(segments[1])
+                    : root.get(order.getProperty());
+                orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+            }
+            query.orderBy(orders);
+            return null;
+        };
+    }
+}
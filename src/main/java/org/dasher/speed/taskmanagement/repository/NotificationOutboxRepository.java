@@ -0,0 +1,23 @@
+package org.dasher.speed.taskmanagement.repository;
+
+import org.dasher.speed.taskmanagement.domain.NotificationOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Próximo lote pronto para envio, na ordem em que foi gravado
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.nextAttemptAt <= :now ORDER BY o.id")
+    List<NotificationOutbox> findReady(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT MIN(o.createdAt) FROM NotificationOutbox o")
+    Optional<LocalDateTime> findOldestCreatedAt();
+}
@@ -1,12 +1,17 @@
 package org.dasher.speed.taskmanagement.repository;
 
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
 import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.domain.PersonName;
 import org.dasher.speed.taskmanagement.domain.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,21 +22,25 @@ public interface PersonRepository extends JpaRepository<Person, Integer> {
     @Query("select p from Person p where p.role = org.dasher.speed.taskmanagement.domain.Enums.PersonRole.DOCTOR")
     List<Person> findAllDoctors();
 
-    @Query("select p from Person p where p.role = org.dasher.speed.taskmanagement.domain.Enums.PersonRole.DOCTOR and " +
-           "(lower(p.firstName) like lower(concat('%', :searchTerm, '%')) or " +
-           "lower(p.lastName) like lower(concat('%', :searchTerm, '%')))")
-    List<Person> searchDoctors(@Param("searchTerm") String searchTerm);
+    @Query("select p.id from Person p join p.doctor d " +
+           "where p.role = org.dasher.speed.taskmanagement.domain.Enums.PersonRole.DOCTOR and " +
+           "(:specialty is null or lower(d.medicalSpecialty) = lower(:specialty)) " +
+           "order by p.id")
+    List<Integer> findDoctorIdsBySpecialty(@Param("specialty") String specialty);
 
     @Query("select p from Person p where p.role = org.dasher.speed.taskmanagement.domain.Enums.PersonRole.PATIENT")
     List<Person> findAllPatients();
 
-    @Query("select p from Person p where p.role = org.dasher.speed.taskmanagement.domain.Enums.PersonRole.PATIENT and " +
-           "(lower(p.firstName) like lower(concat('%', :searchTerm, '%')) or " +
-           "lower(p.lastName) like lower(concat('%', :searchTerm, '%')))")
-    List<Person> searchPatients(@Param("searchTerm") String searchTerm);
+    // Listagem paginada sem termo de busca (a busca por nome usa o PersonNameIndex)
+    Slice<Person> findByRole(PersonRole role, Pageable pageable);
 
-    @Query("select c from Person c" +
-    " where lower(c.firstName) like lower(concat('%', :searchTerm, '%'))" + 
-    " or lower(c.lastName) like lower(concat('%', :searchTerm, '%'))") 
-    List<Person> search(@Param("searchTerm") String filterText);
+    long countByRole(PersonRole role);
+
+    // Página de pessoas já encontradas pelo índice de nomes
+    Slice<Person> findByIdIn(Collection<Integer> ids, Pageable pageable);
+
+    // Carga do índice de nomes, sem o restante do grafo de Person
+    @Query("select new org.dasher.speed.taskmanagement.domain.PersonName(p.id, p.firstName, p.lastName, p.role) " +
+           "from Person p order by p.id")
+    List<PersonName> findAllNames();
 } 
\ No newline at end of file
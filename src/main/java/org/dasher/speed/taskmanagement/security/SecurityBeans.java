@@ -1,6 +1,6 @@
 package org.dasher.speed.taskmanagement.security;
 
-import org.dasher.speed.taskmanagement.notificationApi.Service.NotificationClientService;
+import org.dasher.speed.taskmanagement.service.UserDetailsCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -30,14 +30,7 @@ public class SecurityBeans {
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(
             JwtTokenService jwtTokenService,
-            UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtTokenService, userDetailsService);
-    }
-
-    @Bean
-    public NotificationClientService notificationClientService(
-            JwtTokenService jwtTokenService,
-            SecurityService securityService) {
-        return new NotificationClientService(jwtTokenService, securityService);
+            UserDetailsCache userDetailsCache) {
+        return new JwtAuthenticationFilter(jwtTokenService, userDetailsCache);
     }
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.dasher.speed.taskmanagement.security;
 
+import org.dasher.speed.taskmanagement.domain.AuthenticatedUser;
 import org.dasher.speed.taskmanagement.domain.User;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,8 +21,15 @@ public class SecurityService {
 
     public User getAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof User) {
-            return (User) authentication.getPrincipal();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        // Login por formulário traz a entidade; o token JWT traz o snapshot do cache de usuários
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser snapshot) {
+            return snapshot.toUser();
         }
         return null;
     }
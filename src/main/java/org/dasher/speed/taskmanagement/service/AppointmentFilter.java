@@ -0,0 +1,12 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria for listing a person's appointments. Null or blank fields do not restrict the result;
+ * {@code from} and {@code to} are inclusive days.
+ */
+public record AppointmentFilter(String patientName, LocalDate from, LocalDate to, AppointmentStatus status) {
+}
@@ -1,40 +1,101 @@
 package org.dasher.speed.taskmanagement.service;
 
 import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.CalendarAppointment;
 import org.dasher.speed.taskmanagement.domain.Doctor;
 import org.dasher.speed.taskmanagement.domain.NotificationMessage;
 import org.dasher.speed.taskmanagement.domain.Person;
 import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
 import org.dasher.speed.taskmanagement.repository.AppointmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.patientIn;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.relatedTo;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.startingBefore;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.startingFrom;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.withDetails;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.withStatus;
 
 @Service
 public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final NotificationMessageService notificationMessageService;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final PersonService personService;
+    private final DoctorBookingLocks bookingLocks;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public AppointmentService(AppointmentRepository appointmentRepository, NotificationMessageService notifcationMessageService) {
+    public AppointmentService(AppointmentRepository appointmentRepository, NotificationMessageService notifcationMessageService,
+                              DoctorScheduleIndex scheduleIndex, PersonService personService,
+                              DoctorBookingLocks bookingLocks, PlatformTransactionManager transactionManager) {
          this.appointmentRepository = appointmentRepository;
          this.notificationMessageService = notifcationMessageService;
+         this.scheduleIndex = scheduleIndex;
+         this.personService = personService;
+         this.bookingLocks = bookingLocks;
+         this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
     public Appointment save(Appointment appointment) {
         var appointmentSaved = appointmentRepository.save(appointment);
+        scheduleIndex.record(appointmentSaved);
+        return appointmentSaved;
+    }
+
+    /**
+     * Saves the appointment and queues its notification in the same transaction.
+     */
+    @Transactional
+    public Appointment saveAndNotify(Appointment appointment) {
+        var appointmentSaved = save(appointment);
+        notificationMessageService.sendNotificationByAppointment(appointmentSaved);
         return appointmentSaved;
     }
 
+    /**
+     * Validates the appointment and saves it with its notification while holding the doctor's
+     * booking lock, so two concurrent bookings of the same slot cannot both pass the conflict check.
+     */
+    public Appointment book(Appointment appointment) {
+        if (appointment.getPersonDoctor() == null) {
+            throw new IllegalArgumentException("Médico é obrigatório");
+        }
+        // Sem @Transactional aqui: a transação precisa terminar (commit e atualização do índice de
+        // agenda) antes de o lock ser liberado para o próximo agendamento do mesmo médico
+        return bookingLocks.withLock(appointment.getPersonDoctor().getId(),
+            () -> transactionTemplate.execute(status -> {
+                validateAppointment(appointment);
+                return saveAndNotify(appointment);
+            }));
+    }
+
     @Transactional
     public Appointment updateAppointment(Appointment appointment) {
         var appointmentSaved = appointmentRepository.save(appointment);
+        scheduleIndex.record(appointmentSaved);
         return appointmentSaved;
     }
 
@@ -45,7 +106,7 @@ public class AppointmentService {
 
     @Transactional(readOnly = true)
     public List<Appointment> findByDoctor(Doctor doctor) {
-        return appointmentRepository.findByDoctor(doctor);
+        return appointmentRepository.findByDoctor(personDoctorId(doctor));
     }
 
     @Transactional(readOnly = true)
@@ -58,17 +119,93 @@ public class AppointmentService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return appointmentRepository.findAll();
         }
-        return appointmentRepository.searchAppointmentsByPatient(searchTerm);
+        List<Integer> patientIds = personService.findIdsByName(searchTerm, PersonRole.PATIENT);
+        return patientIds.isEmpty() ? List.of() : appointmentRepository.findByPatientIds(patientIds);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Appointment> searchAppointmentsByPatient(String searchTerm, Pageable pageable) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return appointmentRepository.findAllWithDetails(pageable);
+        }
+        List<Integer> patientIds = personService.findIdsByName(searchTerm, PersonRole.PATIENT);
+        return patientIds.isEmpty()
+            ? new SliceImpl<>(List.of(), pageable, false)
+            : appointmentRepository.findByPatientIds(patientIds, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public long countAppointmentsByPatient(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return appointmentRepository.count();
+        }
+        List<Integer> patientIds = personService.findIdsByName(searchTerm, PersonRole.PATIENT);
+        return patientIds.isEmpty() ? 0 : appointmentRepository.countByPatientIds(patientIds);
     }
 
     @Transactional(readOnly = true)
     public List<Appointment> findByDoctorAndDateRange(Doctor doctor, LocalDateTime startDate, LocalDateTime endDate) {
-        return appointmentRepository.findByDoctorAndDateRange(doctor, startDate, endDate);
+        return appointmentRepository.findByDoctorAndDateRange(personDoctorId(doctor), startDate, endDate);
+    }
+
+    /**
+     * Calendar view of the doctor's appointments overlapping the range, keyed by the doctor's
+     * person id (see {@link #personDoctorId(Doctor)}).
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarAppointment> findCalendarByDoctorAndDateRange(Integer personDoctorId,
+                                                                      LocalDateTime startDate, LocalDateTime endDate) {
+        return appointmentRepository.findCalendarByDoctorAndDateRange(personDoctorId, startDate, endDate);
+    }
+
+    /**
+     * Key of the doctor's appointments ({@code person_doctor_id}). Reading the id of the person
+     * reference does not load the person, so no query is issued.
+     */
+    public Integer personDoctorId(Doctor doctor) {
+        if (doctor == null || doctor.getPerson() == null) {
+            throw new IllegalArgumentException("Médico sem pessoa associada");
+        }
+        return doctor.getPerson().getId();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Appointment> findByPersonAndDateRange(Person person, LocalDateTime startDate, LocalDateTime endDate) {
+        return appointmentRepository.findByPersonAndDateRange(person, startDate, endDate);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Appointment> findRelatedToPersonInRange(Person person, LocalDateTime startDate, LocalDateTime endDate) {
+        return appointmentRepository.findRelatedToPersonAsAnyInRange(person, startDate, endDate);
     }
 
     @Transactional(readOnly = true)
     public List<Appointment> findByDoctorAndDate(Person person_doctor, LocalDateTime date) {
-        return appointmentRepository.findByDoctorAndDate(person_doctor, date);
+        LocalDate day = date.toLocalDate();
+        return appointmentRepository.findByDoctorStartingIn(person_doctor, startOfDay(day), startOfNextDay(day));
+    }
+
+    /**
+     * Appointments of the doctor starting on each of the given days, keyed by day in ascending
+     * order. Consecutive days are read with a single range query, so a week view costs one query.
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, List<Appointment>> findByDoctorAndDays(Person person_doctor, Collection<LocalDate> days) {
+        Map<LocalDate, List<Appointment>> byDay = new TreeMap<>();
+        days.forEach(day -> byDay.put(day, new ArrayList<>()));
+        List<LocalDate> sortedDays = List.copyOf(byDay.keySet());
+
+        // Cada sequência de dias consecutivos vira uma faixa [primeiro dia, dia seguinte ao último)
+        int runStart = 0;
+        for (int i = 1; i <= sortedDays.size(); i++) {
+            if (i == sortedDays.size() || !sortedDays.get(i).equals(sortedDays.get(i - 1).plusDays(1))) {
+                appointmentRepository.findByDoctorStartingIn(person_doctor,
+                        startOfDay(sortedDays.get(runStart)), startOfNextDay(sortedDays.get(i - 1)))
+                    .forEach(appointment -> byDay.get(appointment.getAppointmentDate().toLocalDate()).add(appointment));
+                runStart = i;
+            }
+        }
+        return byDay;
     }
 
     @Transactional(readOnly = true)
@@ -78,27 +215,30 @@ public class AppointmentService {
 
     @Transactional(readOnly = true)
     public boolean hasConflictingAppointments(Person person_doctor, LocalDateTime startTime, LocalDateTime endTime, Integer excludeId) {
-        List<Appointment> conflicts = appointmentRepository.findConflictingAppointments(
-            person_doctor, startTime, endTime, excludeId != null ? excludeId : -1);
-        return !conflicts.isEmpty();
+        DoctorScheduleIndex.Schedule schedule = scheduleIndex.find(person_doctor.getId())
+            .orElseGet(() -> scheduleIndex.load(person_doctor.getId(),
+                from -> appointmentRepository.findActiveIntervalsByDoctor(person_doctor, from)));
+        if (schedule.covers(startTime)) {
+            return schedule.overlaps(startTime, endTime, excludeId);
+        }
+
+        // Horários anteriores à janela do índice: consulta o banco
+        return appointmentRepository.existsConflict(person_doctor, startTime, endTime,
+            excludeId != null ? excludeId : -1);
     }
 
     @Transactional
     public void delete(Integer id) {
-        appointmentRepository.deleteById(id);
+        appointmentRepository.findById(id).ifPresent(appointment -> {
+            appointmentRepository.delete(appointment);
+            scheduleIndex.remove(appointment);
+        });
     }
 
-    @Transactional
     public Appointment updateStatus(Integer appointmentId, Appointment.AppointmentStatus newStatus) {
-        Optional<Appointment> appointmentOpt = getAppointmentById(appointmentId);
-        if (appointmentOpt.isPresent()) {
-            Appointment appointment = appointmentOpt.get();
-            appointment.setStatus(newStatus);
-             var appointmentSaved = save(appointment);
-            notificationMessageService.sendNotificationByAppointment(appointmentSaved);
-            return appointmentSaved;
-        }
-        throw new IllegalArgumentException("Appointment not found with id: " + appointmentId);
+        Appointment appointment = getAppointmentById(appointmentId)
+            .orElseThrow(() -> new IllegalArgumentException("Appointment not found with id: " + appointmentId));
+        return changeStatus(appointment, newStatus);
     }
 
     @Transactional(readOnly = true)
@@ -111,6 +251,57 @@ public class AppointmentService {
         return appointmentRepository.findRelatedToPersonAsAny(person);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Appointment> findRelatedToPerson(Person person, AppointmentFilter filter, Pageable pageable) {
+        Optional<Specification<Appointment>> specification = relatedToPerson(person, filter);
+        if (specification.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        // A posição de deslocamento aponta o último item já visto; a janela diz se há próxima página sem um COUNT
+        ScrollPosition position = pageable.getOffset() == 0
+            ? ScrollPosition.offset()
+            : ScrollPosition.offset(pageable.getOffset() - 1);
+        Window<Appointment> window = appointmentRepository.findBy(specification.get().and(withDetails(pageable.getSort())),
+            query -> query.limit(pageable.getPageSize()).scroll(position));
+        return new SliceImpl<>(window.getContent(), pageable, window.hasNext());
+    }
+
+    @Transactional(readOnly = true)
+    public long countRelatedToPerson(Person person, AppointmentFilter filter) {
+        return relatedToPerson(person, filter).map(appointmentRepository::count).orElse(0L);
+    }
+
+    // Só os filtros informados entram na consulta; vazio quando o nome não corresponde a nenhum paciente
+    private Optional<Specification<Appointment>> relatedToPerson(Person person, AppointmentFilter filter) {
+        Specification<Appointment> specification = relatedTo(person);
+        if (filter.patientName() != null && !filter.patientName().isBlank()) {
+            List<Integer> patientIds = personService.findIdsByName(filter.patientName(), PersonRole.PATIENT);
+            if (patientIds.isEmpty()) {
+                return Optional.empty();
+            }
+            specification = specification.and(patientIn(patientIds));
+        }
+        if (filter.from() != null) {
+            specification = specification.and(startingFrom(startOfDay(filter.from())));
+        }
+        if (filter.to() != null) {
+            specification = specification.and(startingBefore(startOfNextDay(filter.to())));
+        }
+        if (filter.status() != null) {
+            specification = specification.and(withStatus(filter.status()));
+        }
+        return Optional.of(specification);
+    }
+
+    private static LocalDateTime startOfDay(LocalDate day) {
+        return day != null ? day.atStartOfDay() : null;
+    }
+
+    // Fim exclusivo: o dia informado é incluído por inteiro
+    private static LocalDateTime startOfNextDay(LocalDate day) {
+        return day != null ? day.plusDays(1).atStartOfDay() : null;
+    }
+
     public void validateAppointment(Appointment appointment) throws IllegalArgumentException {
         if (appointment.getAppointmentDate() == null) {
             throw new IllegalArgumentException("Data do agendamento é obrigatória");
@@ -137,15 +328,29 @@ public class AppointmentService {
     public Appointment acceptSchedule(boolean isAccepted, NotificationMessage notificationMessage){
         var appointment = getAppointmentById(notificationMessage.getAppointmentId());
         if (appointment.isPresent()) {
-            if (isAccepted) {
-                appointment.get().setStatus(AppointmentStatus.SCHEDULED);
-            } else {
-                appointment.get().setStatus(AppointmentStatus.CANCELLED);
-            }
-            var updatedAppointment = updateAppointment(appointment.get());
-            notificationMessageService.sendNotificationByAppointment(updatedAppointment);
-            return updatedAppointment;
+            return changeStatus(appointment.get(), isAccepted ? AppointmentStatus.SCHEDULED : AppointmentStatus.CANCELLED);
         }
         return null;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Changes the status under the doctor's booking lock, as {@link #book} does. Going from
+     * cancelled or no-show back to an active status takes the slot again, so it is validated
+     * against the doctor's other appointments first.
+     */
+    private Appointment changeStatus(Appointment appointment, AppointmentStatus newStatus) {
+        return bookingLocks.withLock(appointment.getPersonDoctor().getId(),
+            () -> transactionTemplate.execute(status -> {
+                // Relido dentro do lock: o status pode ter mudado desde a leitura do chamador
+                Appointment current = getAppointmentById(appointment.getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Appointment not found with id: " + appointment.getId()));
+                boolean reactivates = !DoctorScheduleIndex.isActive(current.getStatus())
+                    && DoctorScheduleIndex.isActive(newStatus);
+                current.setStatus(newStatus);
+                if (reactivates) {
+                    validateAppointment(current);
+                }
+                return saveAndNotify(current);
+            }));
+    }
+}
@@ -0,0 +1,207 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.AppointmentInterval;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.repository.AppointmentRepository;
+import org.dasher.speed.taskmanagement.repository.PersonRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Computes free appointment slots by merging each doctor's active appointment intervals
+ * against the configured working hours.
+ */
+@Service
+public class AvailabilityService {
+
+    // Limita o número de parâmetros de cada consulta IN
+    private static final int DOCTOR_BATCH_SIZE = 500;
+
+    private final AppointmentRepository appointmentRepository;
+    private final PersonRepository personRepository;
+    private final Clock clock;
+    private final LocalTime workdayStart;
+    private final LocalTime workdayEnd;
+    private final Set<DayOfWeek> workingDays;
+    private final Duration slotStep;
+    private final Period searchWindow;
+    private final Period searchHorizon;
+
+    public AvailabilityService(AppointmentRepository appointmentRepository,
+                               PersonRepository personRepository,
+                               Clock clock,
+                               @Value("${availability.working-hours.start:08:00}") String workdayStart,
+                               @Value("${availability.working-hours.end:18:00}") String workdayEnd,
+                               @Value("${availability.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") Set<DayOfWeek> workingDays,
+                               @Value("${availability.slot-step:PT30M}") Duration slotStep,
+                               @Value("${availability.search-window:P7D}") Period searchWindow,
+                               @Value("${availability.search-horizon:P90D}") Period searchHorizon) {
+        this.appointmentRepository = appointmentRepository;
+        this.personRepository = personRepository;
+        this.clock = clock;
+        this.workdayStart = LocalTime.parse(workdayStart);
+        this.workdayEnd = LocalTime.parse(workdayEnd);
+        this.workingDays = EnumSet.copyOf(workingDays);
+        this.slotStep = slotStep;
+        this.searchWindow = searchWindow;
+        this.searchHorizon = searchHorizon;
+    }
+
+    /**
+     * Earliest slot of the given length among all doctors of a specialty (or all doctors when
+     * {@code specialty} is blank), searching from now up to the configured horizon.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AvailableSlot> findNextAvailable(Duration duration, String specialty) {
+        String normalizedSpecialty = specialty == null || specialty.isBlank() ? null : specialty.trim();
+        List<Integer> doctorIds = personRepository.findDoctorIdsBySpecialty(normalizedSpecialty);
+        if (doctorIds.isEmpty()) {
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime horizon = now.plus(searchHorizon);
+        // Janelas em ordem cronológica: o primeiro horário da primeira janela com vaga é o mais cedo de todos
+        for (LocalDateTime from = now; from.isBefore(horizon); from = from.plus(searchWindow)) {
+            LocalDateTime to = min(from.plus(searchWindow), horizon);
+            List<FreeSlot> slots = computeSlots(doctorIds, duration, from, to, 1);
+            if (!slots.isEmpty()) {
+                FreeSlot slot = slots.get(0);
+                return personRepository.findById(slot.doctorId())
+                    .map(doctor -> new AvailableSlot(doctor, slot.start(), slot.end()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The first {@code limit} free slots of the given length in {@code [from, to)}, across all the
+     * given doctors, ordered by start time.
+     */
+    @Transactional(readOnly = true)
+    public List<AvailableSlot> findFreeSlots(Collection<Person> doctors, Duration duration,
+                                             LocalDateTime from, LocalDateTime to, int limit) {
+        Map<Integer, Person> doctorsById = doctors.stream()
+            .collect(Collectors.toMap(Person::getId, Function.identity(), (first, second) -> first));
+        return computeSlots(new ArrayList<>(doctorsById.keySet()), duration, from, to, limit).stream()
+            .map(slot -> new AvailableSlot(doctorsById.get(slot.doctorId()), slot.start(), slot.end()))
+            .toList();
+    }
+
+    private List<FreeSlot> computeSlots(List<Integer> doctorIds, Duration duration,
+                                        LocalDateTime from, LocalDateTime to, int limit) {
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Duração do horário deve ser positiva");
+        }
+        Comparator<FreeSlot> byStart = Comparator.comparing(FreeSlot::start).thenComparing(FreeSlot::doctorId);
+
+        List<FreeSlot> result = new ArrayList<>();
+        for (int i = 0; i < doctorIds.size(); i += DOCTOR_BATCH_SIZE) {
+            List<Integer> batch = doctorIds.subList(i, Math.min(i + DOCTOR_BATCH_SIZE, doctorIds.size()));
+            Map<Integer, List<AppointmentInterval>> busyByDoctor = appointmentRepository
+                .findActiveIntervalsByDoctorsInRange(batch, from, to).stream()
+                .collect(Collectors.groupingBy(AppointmentInterval::personDoctorId));
+
+            for (Integer doctorId : batch) {
+                result.addAll(freeSlots(doctorId, busyByDoctor.getOrDefault(doctorId, List.of()),
+                    duration, from, to, limit));
+            }
+            result.sort(byStart);
+            if (result.size() > limit) {
+                result = new ArrayList<>(result.subList(0, limit));
+            }
+        }
+        return result;
+    }
+
+    // Varre os dias úteis da janela pulando os intervalos ocupados (já ordenados por início)
+    private List<FreeSlot> freeSlots(Integer doctorId, List<AppointmentInterval> busy, Duration duration,
+                                     LocalDateTime from, LocalDateTime to, int limit) {
+        List<Busy> merged = merge(busy);
+        List<FreeSlot> slots = new ArrayList<>();
+        int next = 0;
+        // O cursor nunca volta: um intervalo que atravessa dias empurra o início dos dias seguintes
+        LocalDateTime earliest = from;
+
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()) && slots.size() < limit; day = day.plusDays(1)) {
+            if (!workingDays.contains(day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime close = min(day.atTime(workdayEnd), to);
+            LocalDateTime cursor = alignToStep(max(day.atTime(workdayStart), earliest));
+
+            while (slots.size() < limit) {
+                while (next < merged.size() && !merged.get(next).end().isAfter(cursor)) {
+                    next++;
+                }
+                LocalDateTime slotEnd = cursor.plus(duration);
+                if (slotEnd.isAfter(close)) {
+                    break;
+                }
+                if (next < merged.size() && merged.get(next).start().isBefore(slotEnd)) {
+                    cursor = alignToStep(merged.get(next).end());
+                    continue;
+                }
+                slots.add(new FreeSlot(doctorId, cursor, slotEnd));
+                cursor = alignToStep(slotEnd);
+            }
+            earliest = cursor;
+        }
+        return slots;
+    }
+
+    private static List<Busy> merge(List<AppointmentInterval> intervals) {
+        List<Busy> merged = new ArrayList<>();
+        for (AppointmentInterval interval : intervals) {
+            int last = merged.size() - 1;
+            if (last >= 0 && !interval.start().isAfter(merged.get(last).end())) {
+                if (interval.end().isAfter(merged.get(last).end())) {
+                    merged.set(last, new Busy(merged.get(last).start(), interval.end()));
+                }
+            } else {
+                merged.add(new Busy(interval.start(), interval.end()));
+            }
+        }
+        return merged;
+    }
+
+    private LocalDateTime alignToStep(LocalDateTime time) {
+        long step = slotStep.toSeconds();
+        long secondOfDay = time.toLocalTime().toSecondOfDay() + (time.getNano() > 0 ? 1 : 0);
+        long aligned = (secondOfDay + step - 1) / step * step;
+        return time.toLocalDate().atStartOfDay().plusSeconds(aligned);
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record Busy(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record FreeSlot(Integer doctorId, LocalDateTime start, LocalDateTime end) {
+    }
+}
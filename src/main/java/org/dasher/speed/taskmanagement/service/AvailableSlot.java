@@ -0,0 +1,11 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Person;
+
+import java.time.LocalDateTime;
+
+/**
+ * A free period in a doctor's working hours that fits the requested duration.
+ */
+public record AvailableSlot(Person doctor, LocalDateTime start, LocalDateTime end) {
+}
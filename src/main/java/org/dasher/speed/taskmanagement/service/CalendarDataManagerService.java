@@ -8,10 +8,15 @@ import org.dasher.speed.taskmanagement.ui.components.CalendarEntryMapper;
 import org.springframework.stereotype.Service;
 import org.vaadin.stefan.fullcalendar.Entry;
 import org.vaadin.stefan.fullcalendar.FullCalendar;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CalendarDataManagerService {
@@ -19,71 +24,78 @@ public class CalendarDataManagerService {
     private final AppointmentService appointmentService;
     private final PersonService personService;
     private final CalendarEntryMapper entryMapper;
-    private final NotificationMessageService notificationMessageService;
     
     public CalendarDataManagerService(AppointmentService appointmentService, 
                               PersonService personService,
-                              CalendarEntryMapper entryMapper,
-                              NotificationMessageService notificationMessageService) {
+                              CalendarEntryMapper entryMapper) {
         this.appointmentService = appointmentService;
         this.personService = personService;
         this.entryMapper = entryMapper;
-        this.notificationMessageService = notificationMessageService;
     }
     
+    /**
+     * Binds the calendar to the current person's appointments. Only the range the calendar is
+     * showing is queried, again each time the user navigates to another period.
+     */
     public void loadExistingAppointments(FullCalendar calendar) {
-        try {
-            List<Appointment> appointments = appointmentService.findRelatedToPerson(personService.getCurrentPerson());
-            
-            for (Appointment appointment : appointments) {
-                addAppointmentToCalendar(calendar, appointment);
-            }
-        } catch (Exception e) {
-            Notification.show("Erro ao carregar agendamentos: " + e.getMessage(), 
-                3000, Notification.Position.MIDDLE);
-        }
+        Person currentPerson = personService.getCurrentPerson();
+        bindAppointments(calendar, "Erro ao carregar agendamentos: ",
+            (start, end) -> appointmentService.findRelatedToPersonInRange(currentPerson, start, end));
     }
     
+    /**
+     * Binds the calendar to the doctor's agenda. The doctor's key is resolved once here and each
+     * navigation reads only the columns the entries show.
+     */
     public void loadDoctorAppointments(FullCalendar calendar, Doctor doctor) {
-        try {
-            List<Appointment> appointments = appointmentService.findByDoctor(doctor);
-            
-            for (Appointment appointment : appointments) {
-                addAppointmentToCalendar(calendar, appointment);
-            }
-        } catch (Exception e) {
-            Notification.show("Erro ao carregar agendamentos do médico: " + e.getMessage(), 
-                3000, Notification.Position.MIDDLE);
-        }
+        Integer personDoctorId = appointmentService.personDoctorId(doctor);
+        bindAppointments(calendar, "Erro ao carregar agendamentos do médico: ",
+            (start, end) -> appointmentService.findCalendarByDoctorAndDateRange(personDoctorId, start, end),
+            entryMapper::createCalendarEntry);
     }
     
     public void loadPatientAppointments(FullCalendar calendar, Person patient) {
-        try {
-            List<Appointment> appointments = appointmentService.findByPerson(patient);
-            
-            for (Appointment appointment : appointments) {
-                addAppointmentToCalendar(calendar, appointment);
-            }
-        } catch (Exception e) {
-            Notification.show("Erro ao carregar agendamentos do paciente: " + e.getMessage(), 
-                3000, Notification.Position.MIDDLE);
-        }
+        bindAppointments(calendar, "Erro ao carregar agendamentos do paciente: ",
+            (start, end) -> appointmentService.findByPersonAndDateRange(patient, start, end));
+    }
+    
+    private void bindAppointments(FullCalendar calendar, String errorMessage,
+                                  BiFunction<LocalDateTime, LocalDateTime, List<Appointment>> rangeLoader) {
+        bindAppointments(calendar, errorMessage, rangeLoader, entryMapper::createCalendarEntry);
+    }
+    
+    private <T> void bindAppointments(FullCalendar calendar, String errorMessage,
+                                      BiFunction<LocalDateTime, LocalDateTime, List<T>> rangeLoader,
+                                      Function<T, Entry> toEntry) {
+        calendar.setEntryProvider(EntryProvider.fromCallbacks(
+            query -> {
+                // O calendário sempre informa o período visível; sem ele não há o que buscar
+                if (query.getStart() == null || query.getEnd() == null) {
+                    return Stream.empty();
+                }
+                try {
+                    return rangeLoader.apply(query.getStart(), query.getEnd()).stream()
+                        .map(toEntry);
+                } catch (Exception e) {
+                    Notification.show(errorMessage + e.getMessage(), 3000, Notification.Position.MIDDLE);
+                    return Stream.empty();
+                }
+            },
+            entryId -> appointmentService.getAppointmentById(Long.parseLong(entryId))
+                .map(entryMapper::createCalendarEntry)
+                .orElse(null)));
     }
     
     public void addAppointmentToCalendar(FullCalendar calendar, Appointment appointment) {
-        Entry entry = entryMapper.createCalendarEntry(appointment);
-        calendar.getEntryProvider().asInMemory().addEntry(entry);
+        calendar.getEntryProvider().refreshAll();
     }
     
     public void updateAppointmentInCalendar(FullCalendar calendar, Entry oldEntry, Appointment appointment) {
-        calendar.getEntryProvider().asInMemory().removeEntry(oldEntry);
-        entryMapper.removeEntry(oldEntry);        
-        addAppointmentToCalendar(calendar, appointment);
+        calendar.getEntryProvider().refreshAll();
     }
     
     public void removeAppointmentFromCalendar(FullCalendar calendar, Entry entry) {
-        calendar.getEntryProvider().asInMemory().removeEntry(entry);
-        entryMapper.removeEntry(entry);
+        calendar.getEntryProvider().refreshAll();
     }
     
     public List<Person> getDoctors() {
@@ -97,10 +109,7 @@ public class CalendarDataManagerService {
     }
     
     public Appointment saveAppointment(Appointment appointment) {
-        appointmentService.validateAppointment(appointment);
-        var appointmentSaved = appointmentService.save(appointment);
-        notificationMessageService.sendNotificationByAppointment(appointmentSaved);
-        return appointmentSaved;
+        return appointmentService.book(appointment);
     }
     
     public Optional<Appointment> findAppointmentById(Integer id) {
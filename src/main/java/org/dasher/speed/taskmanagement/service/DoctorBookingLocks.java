@@ -0,0 +1,64 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the bookings of each doctor. Doctor ids are spread over
+ * {@code appointments.booking.lock-stripes} locks, so bookings of the same doctor run one at a time
+ * while bookings of different doctors rarely wait on each other. A caller that cannot get the lock
+ * within {@code appointments.booking.lock-timeout} fails instead of queueing forever.
+ * <p>
+ * The locks only cover this JVM: with more than one application instance, bookings made on
+ * different instances are not serialized against each other.
+ * </p>
+ */
+@Component
+public class DoctorBookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final Duration timeout;
+
+    public DoctorBookingLocks(@Value("${appointments.booking.lock-stripes:64}") int stripeCount,
+                              @Value("${appointments.booking.lock-timeout:PT5S}") Duration timeout) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("appointments.booking.lock-stripes deve ser positivo");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs {@code action} holding the lock of the doctor's stripe.
+     */
+    public <T> T withLock(Integer doctorId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripe(doctorId)];
+        try {
+            if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Agenda do médico ocupada, tente novamente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Agendamento interrompido", e);
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Espalha ids sequenciais pelos stripes (mesma mistura de bits do HashMap)
+    private int stripe(Integer doctorId) {
+        int hash = doctorId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
@@ -0,0 +1,313 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.AppointmentInterval;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory index of the active appointments of each doctor, answering
+ * "does [start, end) overlap anything for this doctor" without a database round trip.
+ * <p>
+ * Each doctor has an immutable snapshot of its intervals sorted by start time plus the running
+ * maximum of their end times, so an overlap check is one binary search. Writes replace the
+ * snapshot once the surrounding transaction commits, and drop the appointment from any other
+ * doctor's snapshot, so moving it to another doctor frees the old slot. A doctor that was never loaded, or whose
+ * snapshot is older than {@code appointments.schedule-index.ttl}, is a cache miss and must be
+ * (re)loaded by the caller.
+ * </p>
+ * <p>
+ * Only writes made through this instance update its snapshots. Bookings made by another
+ * application instance become visible here when the snapshot expires, so with more than one
+ * instance a snapshot can be stale for up to {@code appointments.schedule-index.ttl}.
+ * </p>
+ */
+@Component
+public class DoctorScheduleIndex {
+
+    private static final Set<AppointmentStatus> INACTIVE_STATUSES =
+        EnumSet.of(AppointmentStatus.CANCELLED, AppointmentStatus.NO_SHOW);
+
+    private final Map<Integer, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    @Value("${appointments.schedule-index.ttl:PT10M}")
+    private Duration ttl;
+
+    public DoctorScheduleIndex(Clock clock) {
+        this.clock = clock;
+    }
+
+    public static boolean isActive(AppointmentStatus status) {
+        return !INACTIVE_STATUSES.contains(status);
+    }
+
+    public Optional<Schedule> find(Integer doctorId) {
+        DoctorSchedule holder = schedules.get(doctorId);
+        Schedule snapshot = holder != null ? holder.snapshot : null;
+        if (snapshot == null || snapshot.loadedAt.plus(ttl).isBefore(clock.instant())) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Builds the doctor's snapshot from the intervals returned by {@code loader}, which receives
+     * the start of the indexed window. The snapshot is only installed if no write for that doctor
+     * happened while loading; it is returned either way so the current check can use it.
+     */
+    public Schedule load(Integer doctorId, Function<LocalDateTime, List<AppointmentInterval>> loader) {
+        DoctorSchedule holder = schedules.computeIfAbsent(doctorId, id -> new DoctorSchedule());
+        long version;
+        holder.lock.lock();
+        try {
+            version = holder.version;
+        } finally {
+            holder.lock.unlock();
+        }
+
+        LocalDateTime coveredFrom = LocalDate.now(clock).atStartOfDay();
+        Schedule loaded = Schedule.of(coveredFrom, clock.instant(), loader.apply(coveredFrom));
+
+        holder.lock.lock();
+        try {
+            if (holder.version == version) {
+                holder.snapshot = loaded;
+            }
+        } finally {
+            holder.lock.unlock();
+        }
+        return loaded;
+    }
+
+    public void record(Appointment appointment) {
+        if (appointment.getId() == null || appointment.getPersonDoctor() == null) {
+            return;
+        }
+        Integer appointmentId = appointment.getId();
+        Integer doctorId = appointment.getPersonDoctor().getId();
+        if (isActive(appointment.getStatus())
+                && appointment.getAppointmentDate() != null && appointment.getEndDate() != null) {
+            AppointmentInterval interval = new AppointmentInterval(appointmentId, doctorId,
+                appointment.getAppointmentDate(), appointment.getEndDate());
+            AfterCommit.run(() -> {
+                removeFromOtherDoctors(appointmentId, doctorId);
+                apply(doctorId, schedule -> schedule.with(interval));
+            });
+        } else {
+            AfterCommit.run(() -> {
+                removeFromOtherDoctors(appointmentId, doctorId);
+                apply(doctorId, schedule -> schedule.without(appointmentId));
+            });
+        }
+    }
+
+    public void remove(Appointment appointment) {
+        if (appointment.getId() == null || appointment.getPersonDoctor() == null) {
+            return;
+        }
+        Integer appointmentId = appointment.getId();
+        Integer doctorId = appointment.getPersonDoctor().getId();
+        AfterCommit.run(() -> apply(doctorId, schedule -> schedule.without(appointmentId)));
+    }
+
+    // O agendamento pode ter trocado de médico: o intervalo sai da agenda de quem o tinha antes
+    private void removeFromOtherDoctors(Integer appointmentId, Integer doctorId) {
+        schedules.forEach((otherDoctorId, holder) -> {
+            Schedule snapshot = holder.snapshot;
+            if (!otherDoctorId.equals(doctorId) && snapshot != null && snapshot.contains(appointmentId)) {
+                apply(otherDoctorId, schedule -> schedule.without(appointmentId));
+            }
+        });
+    }
+
+    private void apply(Integer doctorId, UnaryOperator<Schedule> change) {
+        DoctorSchedule holder = schedules.computeIfAbsent(doctorId, id -> new DoctorSchedule());
+        holder.lock.lock();
+        try {
+            // Bumping the version discards any load that was running concurrently with this write
+            holder.version++;
+            if (holder.snapshot != null) {
+                holder.snapshot = change.apply(holder.snapshot);
+            }
+        } finally {
+            holder.lock.unlock();
+        }
+    }
+
+    private static final class DoctorSchedule {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Schedule snapshot;
+        private long version;
+    }
+
+    /**
+     * Immutable, start-sorted intervals of one doctor. Times are kept as epoch seconds; only their
+     * order matters, so the offset used for the conversion is irrelevant.
+     */
+    public static final class Schedule {
+
+        private final LocalDateTime coveredFrom;
+        private final Instant loadedAt;
+        private final int[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        // Maior fim entre os intervalos 0..i, o id de quem o possui e o maior fim entre os demais
+        private final long[] maxEnds;
+        private final int[] maxEndIds;
+        private final long[] runnerUpEnds;
+
+        private Schedule(LocalDateTime coveredFrom, Instant loadedAt, int[] ids, long[] starts, long[] ends) {
+            this.coveredFrom = coveredFrom;
+            this.loadedAt = loadedAt;
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ids.length];
+            this.maxEndIds = new int[ids.length];
+            this.runnerUpEnds = new long[ids.length];
+
+            long max = Long.MIN_VALUE;
+            long runnerUp = Long.MIN_VALUE;
+            int maxId = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (ends[i] > max) {
+                    runnerUp = max;
+                    max = ends[i];
+                    maxId = ids[i];
+                } else if (ends[i] > runnerUp) {
+                    runnerUp = ends[i];
+                }
+                maxEnds[i] = max;
+                maxEndIds[i] = maxId;
+                runnerUpEnds[i] = runnerUp;
+            }
+        }
+
+        static Schedule of(LocalDateTime coveredFrom, Instant loadedAt, List<AppointmentInterval> intervals) {
+            List<AppointmentInterval> sorted = new ArrayList<>(intervals);
+            sorted.sort(Comparator.comparing(AppointmentInterval::start));
+            int[] ids = new int[sorted.size()];
+            long[] starts = new long[sorted.size()];
+            long[] ends = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                AppointmentInterval interval = sorted.get(i);
+                ids[i] = interval.appointmentId();
+                starts[i] = toKey(interval.start());
+                ends[i] = toKey(interval.end());
+            }
+            return new Schedule(coveredFrom, loadedAt, ids, starts, ends);
+        }
+
+        /**
+         * Whether checks starting at {@code start} can be answered from this snapshot. Earlier
+         * appointments are not loaded.
+         */
+        public boolean covers(LocalDateTime start) {
+            return !start.isBefore(coveredFrom);
+        }
+
+        public boolean overlaps(LocalDateTime start, LocalDateTime end, Integer excludeId) {
+            int last = lastStartingBefore(toKey(end));
+            if (last < 0) {
+                return false;
+            }
+            long latestEnd = excludeId != null && maxEndIds[last] == excludeId ? runnerUpEnds[last] : maxEnds[last];
+            return latestEnd > toKey(start);
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        Schedule with(AppointmentInterval interval) {
+            Schedule base = without(interval.appointmentId());
+            long start = toKey(interval.start());
+            int position = base.lastStartingBefore(start + 1) + 1;
+            int length = base.ids.length + 1;
+
+            int[] newIds = new int[length];
+            long[] newStarts = new long[length];
+            long[] newEnds = new long[length];
+            System.arraycopy(base.ids, 0, newIds, 0, position);
+            System.arraycopy(base.starts, 0, newStarts, 0, position);
+            System.arraycopy(base.ends, 0, newEnds, 0, position);
+            newIds[position] = interval.appointmentId();
+            newStarts[position] = start;
+            newEnds[position] = toKey(interval.end());
+            System.arraycopy(base.ids, position, newIds, position + 1, base.ids.length - position);
+            System.arraycopy(base.starts, position, newStarts, position + 1, base.ids.length - position);
+            System.arraycopy(base.ends, position, newEnds, position + 1, base.ids.length - position);
+            return new Schedule(coveredFrom, loadedAt, newIds, newStarts, newEnds);
+        }
+
+        boolean contains(Integer appointmentId) {
+            return indexOf(appointmentId) >= 0;
+        }
+
+        Schedule without(Integer appointmentId) {
+            int index = indexOf(appointmentId);
+            if (index < 0) {
+                return this;
+            }
+            int length = ids.length - 1;
+            int[] newIds = new int[length];
+            long[] newStarts = new long[length];
+            long[] newEnds = new long[length];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(starts, 0, newStarts, 0, index);
+            System.arraycopy(ends, 0, newEnds, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, length - index);
+            System.arraycopy(starts, index + 1, newStarts, index, length - index);
+            System.arraycopy(ends, index + 1, newEnds, index, length - index);
+            return new Schedule(coveredFrom, loadedAt, newIds, newStarts, newEnds);
+        }
+
+        private int indexOf(Integer appointmentId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == appointmentId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Índice do último intervalo que começa antes de key, ou -1
+        private int lastStartingBefore(long key) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        private static long toKey(LocalDateTime dateTime) {
+            return dateTime.toEpochSecond(ZoneOffset.UTC);
+        }
+    }
+}
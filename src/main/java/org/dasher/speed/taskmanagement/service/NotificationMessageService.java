@@ -1,25 +1,53 @@
 package org.dasher.speed.taskmanagement.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.dasher.speed.taskmanagement.domain.Appointment;
 import org.dasher.speed.taskmanagement.domain.NotificationMessage;
+import org.dasher.speed.taskmanagement.domain.NotificationOutbox;
 import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
 import org.dasher.speed.taskmanagement.notificationApi.Dtos.enums.NotificationStatusEnum;
-import org.dasher.speed.taskmanagement.notificationApi.Controller.NotificationMessageController;
 import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
+import org.dasher.speed.taskmanagement.repository.NotificationOutboxRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
 
 @Service
 public class NotificationMessageService {
 
-    private final NotificationMessageController notificationMessageController;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final NotificationOutboxRelay notificationOutboxRelay;
+    private final Clock clock;
 
-    public NotificationMessageService(NotificationMessageController notificationMessageController) {
-        this.notificationMessageController = notificationMessageController;
+    public NotificationMessageService(NotificationOutboxRepository notificationOutboxRepository,
+                                      ObjectMapper objectMapper,
+                                      NotificationOutboxRelay notificationOutboxRelay,
+                                      Clock clock) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.notificationOutboxRelay = notificationOutboxRelay;
+        this.clock = clock;
     }
 
+    /**
+     * Queues the appointment's notification in the outbox, inside the caller's transaction.
+     * {@link NotificationOutboxRelay} is woken up to publish it to RabbitMQ once that transaction
+     * commits, so the caller never waits on the broker.
+     */
+    @Transactional
     public void sendNotificationByAppointment(Appointment appointment) {
         var notificationMessageRecordDto = setNotificationMessageByAppointment(appointment);
-        notificationMessageController.sendNotification(notificationMessageRecordDto);
+        try {
+            String payload = objectMapper.writeValueAsString(notificationMessageRecordDto);
+            notificationOutboxRepository.save(new NotificationOutbox(payload, LocalDateTime.now(clock)));
+            AfterCommit.run(notificationOutboxRelay::wakeUp);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a notificação do agendamento " + appointment.getId(), e);
+        }
     }
 
     public NotificationMessageRecordDto setNotificationMessageByAppointment(Appointment appointment) {
@@ -64,4 +92,5 @@ public class NotificationMessageService {
         notificationMessage.setMessage(message);
         return notificationMessage;
     }
+
 }
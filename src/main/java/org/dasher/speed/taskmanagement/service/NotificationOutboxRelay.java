@@ -0,0 +1,235 @@
+package org.dasher.speed.taskmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.dasher.speed.taskmanagement.domain.NotificationOutbox;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
+import org.dasher.speed.taskmanagement.config.RabbitMQConfig;
+import org.dasher.speed.taskmanagement.notificationApi.Producer.NotificationPublisher;
+import org.dasher.speed.taskmanagement.notificationApi.Producer.PublishResult;
+import org.dasher.speed.taskmanagement.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the notification outbox to RabbitMQ in batches of up to
+ * {@code notifications.outbox.batch-size}, published with publisher confirms. Each batch is read
+ * in one short transaction, published with no transaction open, and the outcome recorded in a
+ * second short transaction, so no database connection waits on the broker. A message is deleted
+ * once the broker confirms it, so delivery is at-least-once: a crash between the confirm and that
+ * second commit sends it again. Failed messages are retried with exponential backoff, and the
+ * relay pauses while the broker pushes back.
+ */
+@Component
+public class NotificationOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationPublisher publisher;
+    private final Executor executor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean rerun = new AtomicBoolean();
+    private volatile LocalDateTime pausedUntil = LocalDateTime.MIN;
+    private int consecutiveFailures;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private final Timer relayLag;
+    private final Counter published;
+    private final Counter failures;
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                                   NotificationPublisher publisher,
+                                   @Qualifier(RabbitMQConfig.NOTIFICATION_EXECUTOR) Executor executor,
+                                   ApplicationEventPublisher eventPublisher,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   Clock clock,
+                                   @Value("${notifications.outbox.batch-size:100}") int batchSize,
+                                   @Value("${notifications.outbox.retry-backoff:PT5S}") Duration retryBackoff,
+                                   @Value("${notifications.outbox.max-backoff:PT5M}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.executor = executor;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+
+        Gauge.builder("notifications.outbox.depth", depth, AtomicLong::get)
+            .description("Notificações aguardando envio ao broker")
+            .register(meterRegistry);
+        Gauge.builder("notifications.outbox.oldest.age", oldestAgeMillis, age -> age.get() / 1000.0)
+            .description("Idade da notificação mais antiga ainda na outbox")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.relayLag = Timer.builder("notifications.outbox.relay.lag")
+            .description("Tempo entre a gravação na outbox e o envio ao broker")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.published = Counter.builder("notifications.outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("notifications.outbox.failures").register(meterRegistry);
+    }
+
+    /**
+     * Asks for a drain right away on a virtual thread instead of waiting for the next poll. Called
+     * after a transaction that wrote to the outbox commits.
+     */
+    public void wakeUp() {
+        executor.execute(this::drainPending);
+    }
+
+    /**
+     * Drains the outbox and refreshes the depth and oldest-age gauges. Only this tick touches the
+     * gauges, so a booking's wake-up costs no extra COUNT or MIN query.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval:PT1S}")
+    public void relay() {
+        drainPending();
+        refreshGauges();
+    }
+
+    private void drainPending() {
+        rerun.set(true);
+        // Uma drenagem por vez: quem chega durante uma execução pede mais uma rodada a ela
+        while (rerun.get() && running.compareAndSet(false, true)) {
+            try {
+                rerun.set(false);
+                drain();
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        // Broker sob pressão (connection.blocked ou falhas recentes): espera antes de publicar de novo
+        if (!publisher.isBlocked() && !LocalDateTime.now(clock).isBefore(pausedUntil)) {
+            // Lotes cheios indicam que há mais mensagens prontas: continua drenando
+            boolean moreReady;
+            do {
+                moreReady = relayBatch();
+            } while (moreReady);
+        }
+    }
+
+    private boolean relayBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<NotificationOutbox> batch = readTransaction.execute(status ->
+            outboxRepository.findReady(now, Limit.of(batchSize)));
+        List<NotificationOutbox> pending = new ArrayList<>(batch.size());
+        List<NotificationMessageRecordDto> notifications = new ArrayList<>(batch.size());
+        Map<Long, Exception> failed = new LinkedHashMap<>();
+        for (NotificationOutbox message : batch) {
+            try {
+                notifications.add(objectMapper.readValue(message.getPayload(), NotificationMessageRecordDto.class));
+                pending.add(message);
+            } catch (JsonProcessingException e) {
+                failed.put(message.getId(), e);
+                log.warn("Notificação {} da outbox com conteúdo inválido", message.getId(), e);
+            }
+        }
+        if (pending.isEmpty()) {
+            recordOutcome(List.of(), List.of(), failed, now);
+            return batch.size() == batchSize;
+        }
+
+        // Publicação fora de transação: a espera pelas confirmações não segura conexão do banco
+        PublishResult result = publisher.publishAll(notifications);
+        List<NotificationOutbox> confirmed = pending.subList(0, result.confirmed());
+        for (NotificationOutbox message : pending.subList(result.confirmed(), pending.size())) {
+            failed.put(message.getId(), result.failure());
+        }
+        recordOutcome(confirmed, notifications.subList(0, confirmed.size()), failed, now);
+
+        if (!result.isComplete()) {
+            pausedUntil = now.plus(backoff(consecutiveFailures++));
+            log.warn("Broker recusou o lote da outbox ({} de {} confirmadas); nova tentativa após {}",
+                result.confirmed(), pending.size(), pausedUntil, result.failure());
+            return false;
+        }
+        consecutiveFailures = 0;
+        return batch.size() == batchSize;
+    }
+
+    // Apaga as confirmadas e reagenda as que falharam; os eventos saem no commit desta transação
+    private void recordOutcome(List<NotificationOutbox> confirmed, List<NotificationMessageRecordDto> notifications,
+                               Map<Long, Exception> failed, LocalDateTime now) {
+        if (confirmed.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!confirmed.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(confirmed.stream().map(NotificationOutbox::getId).toList());
+            }
+            for (NotificationOutbox message : outboxRepository.findAllById(failed.keySet())) {
+                registerFailure(message, failed.get(message.getId()), now);
+            }
+            LocalDateTime publishedAt = LocalDateTime.now(clock);
+            for (int i = 0; i < confirmed.size(); i++) {
+                relayLag.record(Duration.between(confirmed.get(i).getCreatedAt(), publishedAt));
+                Long receiverId = notifications.get(i).receiverId();
+                if (receiverId != null) {
+                    eventPublisher.publishEvent(new NotificationPublishedEvent(receiverId));
+                }
+            }
+            published.increment(confirmed.size());
+        });
+    }
+
+    private void registerFailure(NotificationOutbox message, Exception error, LocalDateTime now) {
+        failures.increment();
+        message.registerFailure(error.getMessage(), now.plus(backoff(message.getAttempts())));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void refreshGauges() {
+        depth.set(outboxRepository.count());
+        oldestAgeMillis.set(outboxRepository.findOldestCreatedAt()
+            .map(createdAt -> Duration.between(createdAt, LocalDateTime.now(clock)).toMillis())
+            .orElse(0L));
+    }
+}
@@ -0,0 +1,7 @@
+package org.dasher.speed.taskmanagement.service;
+
+/**
+ * Raised in-process when the broker has confirmed a notification for {@code receiverId}.
+ */
+public record NotificationPublishedEvent(long receiverId) {
+}
@@ -0,0 +1,338 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
+import org.dasher.speed.taskmanagement.domain.PersonName;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over person names, answering "whose name contains this term"
+ * without a {@code LIKE '%term%'} scan of the persons table.
+ * <p>
+ * Names are folded (lower case, accents removed) and indexed by the trigrams of the full name
+ * plus the padded trigrams of each word, as pg_trgm does, so one- and two-letter terms can still
+ * be answered for word prefixes. A term matches when its folded form is a substring of the
+ * folded full name. Names with a word starting with the term come first, then the other matches,
+ * each group in id order so the search can stop as soon as it has enough results. Only substring
+ * matches of one- or two-letter terms need a scan of all names.
+ * </p>
+ */
+@Component
+public class PersonNameIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedName> names = new HashMap<>();
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Builds the index from {@code loader} the first time it is called; later calls are no-ops.
+     */
+    public void ensureLoaded(Supplier<List<PersonName>> loader) {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (PersonName name : loader.get()) {
+                    add(IndexedName.of(name));
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a person's name once the surrounding transaction commits. Ignored until the
+     * index is loaded, since the load reads the committed state anyway.
+     */
+    public void put(PersonName name) {
+        if (name.id() == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    IndexedName previous = names.get(name.id());
+                    if (previous != null) {
+                        removePostings(previous);
+                    }
+                    add(IndexedName.of(name));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Drops a person's name once the surrounding transaction commits.
+     */
+    public void remove(Integer personId) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                IndexedName previous = names.remove(personId);
+                if (previous != null) {
+                    removePostings(previous);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * The first {@code limit} ids of the persons whose name contains {@code term}, word-prefix
+     * matches first, restricted to {@code role} unless it is null. Pass {@link Integer#MAX_VALUE}
+     * for every match.
+     */
+    public List<Integer> search(String term, PersonRole role, int limit) {
+        String folded = fold(term);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Integer> result = new ArrayList<>();
+            if (folded.length() >= 3) {
+                Posting[] termTrigrams = termTrigrams(folded);
+                if (termTrigrams == null) {
+                    return result;
+                }
+                Posting wordStarts = postings.get(wordStartKey(folded, 0));
+                if (wordStarts != null) {
+                    collect(result, append(termTrigrams, wordStarts), folded, role, true, limit);
+                }
+                if (result.size() < limit) {
+                    collect(result, termTrigrams, folded, role, false, limit);
+                }
+            } else {
+                Posting wordStarts = postings.get(key((folded.length() == 1 ? "  " : " ") + folded, 0));
+                if (wordStarts != null) {
+                    collect(result, new Posting[] {wordStarts}, folded, role, true, limit);
+                }
+                if (result.size() < limit) {
+                    scanSubstrings(result, folded, role, limit);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Postings de todos os trigramas do termo, ou null se algum não existe (nenhum nome contém o termo)
+    private Posting[] termTrigrams(String term) {
+        Posting[] required = new Posting[term.length() - 2];
+        for (int i = 0; i < required.length; i++) {
+            Posting posting = postings.get(key(term, i));
+            if (posting == null) {
+                return null;
+            }
+            required[i] = posting;
+        }
+        return required;
+    }
+
+    // Percorre a posting mais curta em ordem de id, exigindo o id nas demais, até juntar limit resultados
+    private void collect(List<Integer> result, Posting[] required, String term, PersonRole role,
+                         boolean wordPrefix, int limit) {
+        Posting[] sorted = required.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(posting -> posting.size));
+        Posting driver = sorted[0];
+        candidates:
+        for (int i = 0; i < driver.size && result.size() < limit; i++) {
+            int id = driver.ids[i];
+            for (int j = 1; j < sorted.length; j++) {
+                if (!sorted[j].contains(id)) {
+                    continue candidates;
+                }
+            }
+            if (matches(names.get(id), term, role, wordPrefix)) {
+                result.add(id);
+            }
+        }
+    }
+
+    // Substrings de termos curtos não têm trigrama próprio: varre todos os nomes
+    private void scanSubstrings(List<Integer> result, String term, PersonRole role, int limit) {
+        List<Integer> found = new ArrayList<>();
+        for (IndexedName name : names.values()) {
+            if (matches(name, term, role, false)) {
+                found.add(name.id());
+            }
+        }
+        found.sort(null);
+        result.addAll(found.subList(0, Math.min(found.size(), limit - result.size())));
+    }
+
+    private static boolean matches(IndexedName name, String term, PersonRole role, boolean wordPrefix) {
+        if (name == null || (role != null && name.role() != role)) {
+            return false;
+        }
+        String fullName = name.fullName();
+        boolean startsWord = fullName.startsWith(term) || fullName.contains(" " + term);
+        return wordPrefix ? startsWord : !startsWord && fullName.contains(term);
+    }
+
+    private static Posting[] append(Posting[] postings, Posting extra) {
+        Posting[] all = Arrays.copyOf(postings, postings.length + 1);
+        all[postings.length] = extra;
+        return all;
+    }
+
+    private void add(IndexedName name) {
+        names.put(name.id(), name);
+        for (long trigram : trigrams(name.fullName())) {
+            postings.computeIfAbsent(trigram, key -> new Posting()).add(name.id());
+        }
+    }
+
+    private void removePostings(IndexedName name) {
+        for (long trigram : trigrams(name.fullName())) {
+            Posting posting = postings.get(trigram);
+            if (posting != null) {
+                posting.remove(name.id());
+                if (posting.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    // Trigramas do nome completo, de cada palavra com "  " antes e " " depois e do início de cada palavra, sem repetição
+    private static long[] trigrams(String fullName) {
+        long[] keys = new long[fullName.length() * 3 + 8];
+        int count = 0;
+        for (int i = 0; i + 3 <= fullName.length(); i++) {
+            keys[count++] = key(fullName, i);
+        }
+        for (String word : fullName.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                keys[count++] = key(padded, i);
+            }
+            if (word.length() >= 3) {
+                keys[count++] = wordStartKey(word, 0);
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static long key(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    // Mesmo trigrama, marcado como início de palavra
+    private static long wordStartKey(String text, int offset) {
+        return key(text, offset) | (1L << 48);
+    }
+
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (isPlainAscii(text)) {
+            return text.toLowerCase(Locale.ROOT).trim();
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Sem acentos nem espaços repetidos: dispensa a normalização
+    private static boolean isPlainAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 128 || (Character.isWhitespace(c) && (c != ' ' || (i > 0 && text.charAt(i - 1) == ' ')))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record IndexedName(int id, PersonRole role, String fullName) {
+
+        static IndexedName of(PersonName name) {
+            String first = name.firstName() != null ? name.firstName() : "";
+            String last = name.lastName() != null ? name.lastName() : "";
+            return new IndexedName(name.id(), name.role(), fold(first + " " + last));
+        }
+    }
+
+    /**
+     * Sorted ids of the persons containing one trigram. Ids are mostly appended in increasing order.
+     */
+    private static final class Posting {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                position = -position - 1;
+            } else if (position < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
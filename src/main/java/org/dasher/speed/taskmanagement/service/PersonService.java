@@ -1,29 +1,62 @@
 package org.dasher.speed.taskmanagement.service;
 
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
 import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.domain.PersonName;
 import org.dasher.speed.taskmanagement.domain.User;
 import org.dasher.speed.taskmanagement.repository.PersonRepository;
 import org.dasher.speed.taskmanagement.security.SecurityService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PersonService {
 
     private final PersonRepository personRepository;
     private final SecurityService securityService;
+    private final PersonNameIndex nameIndex;
+    private final int maxSearchResults;
 
-    public PersonService(PersonRepository personRepository, SecurityService securityService) {
+    public PersonService(PersonRepository personRepository, SecurityService securityService, PersonNameIndex nameIndex,
+                         @Value("${person-search.max-results:1000}") int maxSearchResults) {
         this.personRepository = personRepository;
         this.securityService = securityService;
+        this.nameIndex = nameIndex;
+        this.maxSearchResults = maxSearchResults;
     }
 
     @Transactional
     public Person save(Person person) {
-        return personRepository.save(person);
+        Person savedPerson = personRepository.save(person);
+        nameIndex.put(new PersonName(savedPerson.getId(), savedPerson.getFirstName(), savedPerson.getLastName(),
+            savedPerson.getRole()));
+        return savedPerson;
+    }
+
+    @Transactional
+    public void delete(Integer id) {
+        personRepository.deleteById(id);
+        nameIndex.remove(id);
+    }
+
+    // Carrega o índice de nomes na subida, para que a primeira busca não pague a carga
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadNameIndex() {
+        nameIndex.ensureLoaded(personRepository::findAllNames);
     }
 
     @Transactional(readOnly = true)
@@ -51,7 +84,17 @@ public class PersonService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return findAllDoctors();
         }
-        return personRepository.searchDoctors(searchTerm);
+        return findAllInOrder(findIdsByName(searchTerm, PersonRole.DOCTOR, maxSearchResults));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Person> searchDoctorsByName(String searchTerm, Pageable pageable) {
+        return searchByName(searchTerm, PersonRole.DOCTOR, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public long countDoctorsByName(String searchTerm) {
+        return countByName(searchTerm, PersonRole.DOCTOR);
     }
 
     @Transactional(readOnly = true)
@@ -64,7 +107,26 @@ public class PersonService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return findAllPatients();
         }
-        return personRepository.searchPatients(searchTerm);
+        return findAllInOrder(findIdsByName(searchTerm, PersonRole.PATIENT, maxSearchResults));
+    }
+    
+    @Transactional(readOnly = true)
+    public Slice<Person> searchPatientsByName(String searchTerm, Pageable pageable) {
+        return searchByName(searchTerm, PersonRole.PATIENT, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public long countPatientsByName(String searchTerm) {
+        return countByName(searchTerm, PersonRole.PATIENT);
+    }
+
+    /**
+     * Ids of all the persons whose name contains {@code searchTerm}, best matches first.
+     * {@code role} may be null to search everyone.
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> findIdsByName(String searchTerm, PersonRole role) {
+        return findIdsByName(searchTerm, role, Integer.MAX_VALUE);
     }
     
     @Transactional(readOnly = true)
@@ -77,4 +139,43 @@ public class PersonService {
         return findByUser(currentUser)
             .orElseThrow(() -> new IllegalStateException("Usuário atual não possui Person associada"));
     }
-} 
\ No newline at end of file
+
+    private Slice<Person> searchByName(String searchTerm, PersonRole role, Pageable pageable) {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return role != null ? personRepository.findByRole(role, pageable) : personRepository.findAll(pageable);
+        }
+        if (pageable.getSort().isSorted()) {
+            // A ordenação é feita pelo banco, sobre todos os encontrados
+            List<Integer> ids = findIdsByName(searchTerm, role);
+            return ids.isEmpty() ? new SliceImpl<>(List.of(), pageable, false) : personRepository.findByIdIn(ids, pageable);
+        }
+
+        // Sem ordenação escolhida, mantém a ordem de relevância do índice, que para logo depois da página
+        List<Integer> ids = findIdsByName(searchTerm, role,
+            (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize() + 1L));
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new SliceImpl<>(findAllInOrder(ids.subList(from, to)), pageable, to < ids.size());
+    }
+
+    private long countByName(String searchTerm, PersonRole role) {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return role != null ? personRepository.countByRole(role) : personRepository.count();
+        }
+        return findIdsByName(searchTerm, role).size();
+    }
+
+    private List<Integer> findIdsByName(String searchTerm, PersonRole role, int limit) {
+        nameIndex.ensureLoaded(personRepository::findAllNames);
+        return nameIndex.search(searchTerm, role, limit);
+    }
+
+    private List<Person> findAllInOrder(List<Integer> ids) {
+        Map<Integer, Person> personsById = personRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Person::getId, Function.identity()));
+        return ids.stream()
+            .map(personsById::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+}
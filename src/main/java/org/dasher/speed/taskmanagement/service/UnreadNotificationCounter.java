@@ -0,0 +1,189 @@
+package org.dasher.speed.taskmanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.dasher.speed.taskmanagement.notificationApi.Service.NotificationClientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * In-memory unread notification count per receiver, pushed to subscribers whenever it changes.
+ * <p>
+ * A receiver's count is fetched from the notification service in the background the first time
+ * someone asks for it, and is kept up to date from {@link NotificationPublishedEvent}s and
+ * {@link #markRead} calls, so reading it costs no network round trip. Changes made elsewhere (another
+ * instance, another client of the service) are picked up by reloading counts older than
+ * {@code notifications.unread-counter.refresh-after}: when a badge attaches, when the count is read
+ * and periodically for receivers that have a badge open. The periodic reload runs with the security
+ * context of the receiver's latest subscriber, so the outbound request carries their JWT. Counts
+ * nobody asked for during
+ * {@code notifications.unread-counter.expire-after-access} are dropped.
+ * </p>
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+    private final NotificationClientService notificationClientService;
+    private final Clock clock;
+    private final Duration refreshAfter;
+    private final Cache<Long, Count> counts;
+    private final Map<Long, Set<IntConsumer>> listeners = new ConcurrentHashMap<>();
+    // Contexto de segurança de quem assinou por último: a thread do agendador não tem nenhum
+    private final Map<Long, SecurityContext> subscriberContexts = new ConcurrentHashMap<>();
+    private final Set<Long> loading = ConcurrentHashMap.newKeySet();
+
+    public UnreadNotificationCounter(NotificationClientService notificationClientService, Clock clock,
+                                     @Value("${notifications.unread-counter.refresh-after:PT5M}") Duration refreshAfter,
+                                     @Value("${notifications.unread-counter.expire-after-access:PT30M}") Duration expireAfterAccess) {
+        this.notificationClientService = notificationClientService;
+        this.clock = clock;
+        this.refreshAfter = refreshAfter;
+        this.counts = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(expireAfterAccess)
+            .build();
+    }
+
+    /**
+     * Calls {@code listener} with the receiver's current count (right away if it is known, once
+     * loaded otherwise) and again on every change, until the returned registration is removed.
+     * Listeners run on whichever thread made the change.
+     */
+    public Subscription subscribe(long receiverId, IntConsumer listener) {
+        SecurityContext current = SecurityContextHolder.getContext();
+        listeners.compute(receiverId, (id, receiverListeners) -> {
+            Set<IntConsumer> updated = receiverListeners != null ? receiverListeners : new CopyOnWriteArraySet<>();
+            updated.add(listener);
+            if (current.getAuthentication() != null) {
+                SecurityContext copy = SecurityContextHolder.createEmptyContext();
+                copy.setAuthentication(current.getAuthentication());
+                subscriberContexts.put(id, copy);
+            }
+            return updated;
+        });
+
+        Count count = counts.getIfPresent(receiverId);
+        if (count != null) {
+            listener.accept(count.unread());
+        }
+        // Badge novo: confere com o serviço se a contagem ainda não existe ou já passou do prazo
+        loadIfStale(receiverId, count);
+
+        return () -> listeners.computeIfPresent(receiverId, (id, receiverListeners) -> {
+            receiverListeners.remove(listener);
+            if (receiverListeners.isEmpty()) {
+                subscriberContexts.remove(id);
+                return null;
+            }
+            return receiverListeners;
+        });
+    }
+
+    /**
+     * The cached count, or 0 while it has not been loaded yet.
+     */
+    public int unreadCount(long receiverId) {
+        Count count = counts.getIfPresent(receiverId);
+        loadIfStale(receiverId, count);
+        return count != null ? count.unread() : 0;
+    }
+
+    public void markRead(long receiverId) {
+        update(receiverId, unread -> Math.max(0, unread - 1));
+    }
+
+    public void markAllRead(long receiverId) {
+        update(receiverId, unread -> 0);
+    }
+
+    // Só depois do commit do lote da outbox, para não contar um envio que será repetido
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationPublished(NotificationPublishedEvent event) {
+        // Sem contagem carregada não há o que incrementar: a carga trará o valor do serviço
+        update(event.receiverId(), unread -> unread + 1);
+    }
+
+    // Badges abertos por muito tempo também são conferidos, mesmo sem nova navegação
+    @Scheduled(fixedDelayString = "${notifications.unread-counter.refresh-after:PT5M}")
+    public void refreshSubscribed() {
+        listeners.keySet().forEach(receiverId -> {
+            SecurityContext context = subscriberContexts.get(receiverId);
+            if (context == null) {
+                return;
+            }
+            // A chamada assíncrona do cliente captura o contexto da thread que a dispara
+            new DelegatingSecurityContextExecutor(Runnable::run, context)
+                .execute(() -> loadIfStale(receiverId, counts.getIfPresent(receiverId)));
+        });
+    }
+
+    private void update(long receiverId, IntUnaryOperator change) {
+        Count updated = counts.asMap().computeIfPresent(receiverId,
+            (id, count) -> new Count(change.applyAsInt(count.unread()), count.loadedAt()));
+        if (updated != null) {
+            publish(receiverId, updated.unread());
+        }
+    }
+
+    private void loadIfStale(long receiverId, Count count) {
+        if (count == null || !count.loadedAt().plus(refreshAfter).isAfter(clock.instant())) {
+            load(receiverId);
+        }
+    }
+
+    private void load(long receiverId) {
+        if (!loading.add(receiverId)) {
+            return;
+        }
+        notificationClientService.getCountNotificationsByReceiverIdAsync(receiverId)
+            .whenComplete((unread, error) -> {
+                loading.remove(receiverId);
+                if (error != null) {
+                    log.warn("Não foi possível carregar as notificações não lidas de {}", receiverId, error);
+                    return;
+                }
+                // O valor do serviço substitui o que foi contado aqui desde a última carga
+                Count loaded = new Count(unread != null ? unread : 0, clock.instant());
+                counts.put(receiverId, loaded);
+                publish(receiverId, loaded.unread());
+            });
+    }
+
+    private void publish(long receiverId, int count) {
+        Set<IntConsumer> receiverListeners = listeners.get(receiverId);
+        if (receiverListeners != null) {
+            receiverListeners.forEach(listener -> listener.accept(count));
+        }
+    }
+
+    private record Count(int unread, Instant loadedAt) {
+    }
+
+    /**
+     * Stops the updates of one {@link #subscribe} call.
+     */
+    @FunctionalInterface
+    public interface Subscription {
+
+        void cancel();
+    }
+}
@@ -0,0 +1,87 @@
+package org.dasher.speed.taskmanagement.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.dasher.speed.taskmanagement.domain.AuthenticatedUser;
+import org.dasher.speed.taskmanagement.domain.User;
+import org.dasher.speed.taskmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Users looked up by email for bearer-token authentication, kept in memory so that repeated
+ * requests from the same user do not query the database. The cache holds immutable
+ * {@link AuthenticatedUser} snapshots, never the JPA entity, so requests cannot see or make
+ * changes through a shared instance. Entries live for
+ * {@code security.user-cache.ttl} and are evicted by {@link UserService} when a user changes.
+ * Hit and miss counts are published as the {@code cache.*} metrics with {@code cache=userDetails}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserRepository userRepository;
+    private final AsyncLoadingCache<String, AuthenticatedUser> users;
+
+    public UserDetailsCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.user-cache.ttl:PT5M}") Duration ttl,
+                            @Value("${security.user-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        // A consulta roda numa thread virtual própria: o cache só guarda o futuro dentro do bloco
+        // synchronized do ConcurrentHashMap, e quem espera estaciona sem prender o carrier durante o JDBC
+        this.users = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .recordStats()
+            .executor(task -> Thread.ofVirtual().name("user-details-load").start(task))
+            .buildAsync(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "userDetails");
+    }
+
+    /**
+     * Concurrent requests for the same user share one database load. A load that an
+     * {@link #evict} overtakes is discarded instead of being cached.
+     */
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        AuthenticatedUser user;
+        try {
+            user = users.get(username).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        // Usuários inexistentes não ficam em cache e a exceção é lançada a cada vez
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + username);
+        }
+        return user;
+    }
+
+    private AuthenticatedUser load(String username) {
+        return userRepository.findByEmail(username).map(AuthenticatedUser::of).orElse(null);
+    }
+
+    /**
+     * Drops the user's entries now and again once the current transaction commits, so a
+     * request running concurrently cannot put the old version back. Entries are matched by id
+     * as well, which covers a change of email.
+     */
+    public void evict(User user) {
+        Runnable eviction = () -> {
+            if (user.getEmail() != null) {
+                users.synchronous().invalidate(user.getEmail());
+            }
+            if (user.getId() != null) {
+                users.synchronous().asMap().values().removeIf(cached -> user.getId().equals(cached.id()));
+            }
+        };
+        eviction.run();
+        AfterCommit.run(eviction);
+    }
+}
@@ -15,17 +15,21 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Transactional
     public User register(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));        
-        return userRepository.save(user);
+        var savedUser = userRepository.save(user);
+        userDetailsCache.evict(savedUser);
+        return savedUser;
     }
 
     @Transactional
@@ -33,7 +37,9 @@ public class UserService implements UserDetailsService {
         if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        var savedUser = userRepository.save(user);
+        userDetailsCache.evict(savedUser);
+        return savedUser;
     }
 
     public boolean emailExists(String email) {
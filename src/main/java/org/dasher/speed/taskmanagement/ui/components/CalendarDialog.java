@@ -119,6 +119,6 @@ public class CalendarDialog extends Dialog {
     }
 
     private void refreshCalendar() {
-        calendar.getEntryProvider().asInMemory().refreshAll();
+        calendar.getEntryProvider().refreshAll();
     }
 } 
\ No newline at end of file
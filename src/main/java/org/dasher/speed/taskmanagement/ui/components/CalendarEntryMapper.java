@@ -1,64 +1,67 @@
 package org.dasher.speed.taskmanagement.ui.components;
 
 import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.CalendarAppointment;
+import org.dasher.speed.taskmanagement.domain.Person;
 import org.vaadin.stefan.fullcalendar.Entry;
 import org.springframework.stereotype.Component;
 
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
- * Responsible for mapping between Appointment entities and FullCalendar Entry objects
+ * Responsible for mapping between Appointment entities and FullCalendar Entry objects.
+ * The entry id is the appointment id, so entries can be rebuilt on every fetch.
  */
 @Component
 public class CalendarEntryMapper {
     
-    private final Map<Entry, Integer> entryToAppointmentId = new HashMap<>();
-    
     public Entry createCalendarEntry(Appointment appointment) {
-        Entry entry = new Entry();
+        Person doctor = appointment.getPersonDoctor();
+        Person patient = appointment.getPersonPatient();
+        return createCalendarEntry(new CalendarAppointment(appointment.getId(), appointment.getAppointmentDate(),
+            appointment.getEndDate(), appointment.getStatus(), appointment.getDescription(),
+            doctor.getFirstName(), doctor.getLastName(),
+            patient != null ? patient.getId() : null,
+            patient != null ? patient.getFirstName() : null,
+            patient != null ? patient.getLastName() : null));
+    }
+    
+    public Entry createCalendarEntry(CalendarAppointment appointment) {
+        Entry entry = new Entry(String.valueOf(appointment.id()));
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-        String startHour = appointment.getAppointmentDate().format(formatter);
-        String endHour = appointment.getEndDate().format(formatter);
+        String startHour = appointment.start().format(formatter);
+        String endHour = appointment.end().format(formatter);
         // Basic information
-        entry.setTitle("Id: " + appointment.getId().toString() + " - " + startHour + " - " + endHour);
-        entry.setStart(appointment.getAppointmentDate());
-        entry.setEnd(appointment.getEndDate());
-        entry.setColor(getColorByStatus(appointment.getStatus()));
+        entry.setTitle("Id: " + appointment.id().toString() + " - " + startHour + " - " + endHour);
+        entry.setStart(appointment.start());
+        entry.setEnd(appointment.end());
+        entry.setColor(getColorByStatus(appointment.status()));
         
         // Add detailed information in description
         StringBuilder description = new StringBuilder();
-        description.append("Médico: ").append(appointment.getPersonDoctor().getFirstName())
-                  .append(" ").append(appointment.getPersonDoctor().getLastName());
+        description.append("Médico: ").append(appointment.doctorFirstName())
+                  .append(" ").append(appointment.doctorLastName());
         
-        if (appointment.getPersonPatient() != null) {
-            description.append("\nAgendado por: ").append(appointment.getPersonPatient().getFirstName())
-                      .append(" ").append(appointment.getPersonPatient().getLastName());
+        if (appointment.patientId() != null) {
+            description.append("\nAgendado por: ").append(appointment.patientFirstName())
+                      .append(" ").append(appointment.patientLastName());
         }
         
-        if (appointment.getDescription() != null) {
-            description.append("\n").append(appointment.getDescription());
+        if (appointment.description() != null) {
+            description.append("\n").append(appointment.description());
         }
         
         entry.setDescription(description.toString());
         
-        // Store the appointment ID for reference
-        entryToAppointmentId.put(entry, appointment.getId());
-        
         return entry;
     }
     
     public Integer getAppointmentId(Entry entry) {
-        return entryToAppointmentId.get(entry);
-    }
-    
-    public void removeEntry(Entry entry) {
-        entryToAppointmentId.remove(entry);
-    }
-    
-    public void clearMappings() {
-        entryToAppointmentId.clear();
+        try {
+            return Integer.valueOf(entry.getId());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
     
     public String getColorByStatus(Appointment.AppointmentStatus status) {
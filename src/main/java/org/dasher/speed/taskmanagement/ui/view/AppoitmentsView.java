@@ -3,23 +3,31 @@ package org.dasher.speed.taskmanagement.ui.view;
 import org.dasher.speed.base.ui.component.ViewToolbar;
 import org.dasher.speed.taskmanagement.domain.Person;
 import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.service.AppointmentFilter;
 import org.dasher.speed.taskmanagement.service.AppointmentService;
 import org.dasher.speed.taskmanagement.service.CalendarDataManagerService;
 import org.dasher.speed.taskmanagement.service.PersonService;
 import org.dasher.speed.taskmanagement.ui.components.CalendarEventHandler;
 
+import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import jakarta.annotation.security.PermitAll;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import java.time.format.DateTimeFormatter;
 
+import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
+
 
 @Route("appointments")
 @PageTitle("Appointments  | LifePlus")
@@ -32,6 +40,9 @@ public class AppoitmentsView extends VerticalLayout {
     private final CalendarEventHandler eventHandler;
     private final PersonService personService;
     private final TextField filterText;
+    private final DatePicker fromDate;
+    private final DatePicker toDate;
+    private final Select<Appointment.AppointmentStatus> statusFilter;
     private final Grid<Appointment> grid;
 
     public AppoitmentsView(AppointmentService appointmentService, CalendarDataManagerService dataManager, CalendarEventHandler eventHandler, PersonService personService) {
@@ -40,6 +51,9 @@ public class AppoitmentsView extends VerticalLayout {
         this.eventHandler = eventHandler;
         this.personService = personService;
         this.filterText = new TextField();
+        this.fromDate = new DatePicker();
+        this.toDate = new DatePicker();
+        this.statusFilter = new Select<>();
         this.grid = new Grid<>();
 
         setupToolbar();
@@ -59,7 +73,27 @@ public class AppoitmentsView extends VerticalLayout {
         filterText.setClearButtonVisible(true);
         filterText.setValueChangeMode(ValueChangeMode.LAZY);
         filterText.addValueChangeListener(e -> updateList());
-        add(new ViewToolbar("Lista de Agendamentos", ViewToolbar.group(filterText)));
+
+        fromDate.setPlaceholder("De");
+        fromDate.setAriaLabel("Data inicial");
+        fromDate.setClearButtonVisible(true);
+        fromDate.addValueChangeListener(e -> updateList());
+
+        toDate.setPlaceholder("Até");
+        toDate.setAriaLabel("Data final");
+        toDate.setClearButtonVisible(true);
+        toDate.addValueChangeListener(e -> updateList());
+
+        statusFilter.setPlaceholder("Status");
+        statusFilter.setAriaLabel("Status");
+        statusFilter.setItems(Appointment.AppointmentStatus.values());
+        statusFilter.setItemLabelGenerator(status -> status != null ? status.getDisplayName() : "Todos");
+        statusFilter.setEmptySelectionAllowed(true);
+        statusFilter.setEmptySelectionCaption("Todos");
+        statusFilter.addValueChangeListener(e -> updateList());
+
+        add(new ViewToolbar("Lista de Agendamentos", ViewToolbar.group(filterText),
+            ViewToolbar.group(fromDate, toDate, statusFilter)));
     }
 
     private void configureGrid() {
@@ -68,31 +102,54 @@ public class AppoitmentsView extends VerticalLayout {
         grid.addColumn(appointment -> {
             Person doctor = appointment.getPersonDoctor();
             return doctor != null ? doctor.getFirstName() + " " + doctor.getLastName() : "N/A";
-        }).setHeader("Médico");
+        }).setHeader("Médico").setSortProperty("person_doctor.firstName", "person_doctor.lastName");
         
         grid.addColumn(appointment -> {
             Person patient = appointment.getPersonPatient();
             return patient != null ? patient.getFirstName() + " " + patient.getLastName() : "Paciente externo";
-        }).setHeader("Paciente");
+        }).setHeader("Paciente").setSortProperty("person_patient.firstName", "person_patient.lastName");
         
         grid.addColumn(appointment -> {
             return appointment.getAppointmentDate() != null ? 
                 appointment.getAppointmentDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : "N/A";
-        }).setHeader("Data e Hora Inicial");
+        }).setHeader("Data e Hora Inicial").setSortProperty("appointmentDate");
         
         grid.addColumn(appointment -> {
             return appointment.getEndDate() != null ? 
                 appointment.getEndDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : "N/A";
-        }).setHeader("Data e Hora Final");
+        }).setHeader("Data e Hora Final").setSortProperty("endDate");
 
         grid.addColumn(appointment -> {
             return appointment.getStatus() != null ? 
                 appointment.getStatus().getDisplayName() : "N/A";
-        }).setHeader("Status");
+        }).setHeader("Status").setSortProperty("status");
         
         grid.getColumns().forEach(col -> col.setAutoWidth(true));
         
         add(grid);
+        bindAppointments();
+    }
+
+    private void bindAppointments() {
+        try {
+            // Apenas agendamentos relacionados ao usuário atual, filtrados no banco
+            Person currentPerson = personService.getCurrentPerson();
+            grid.setItems(
+                query -> appointmentService.findRelatedToPerson(currentPerson, currentFilter(), toPageRequest(query)).stream(),
+                query -> (int) appointmentService.countRelatedToPerson(currentPerson, currentFilter()));
+        } catch (Exception e) {
+            showErrorNotification("Erro ao atualizar lista de agendamentos", e.getMessage());
+        }
+    }
+
+    private AppointmentFilter currentFilter() {
+        return new AppointmentFilter(filterText.getValue(), fromDate.getValue(), toDate.getValue(), statusFilter.getValue());
+    }
+
+    // Sem ordenação escolhida na grid, lista por data de início
+    private static PageRequest toPageRequest(Query<Appointment, Void> query) {
+        PageRequest pageRequest = toSpringPageRequest(query);
+        return pageRequest.getSort().isSorted() ? pageRequest : pageRequest.withSort(Sort.by("appointmentDate"));
     }
 
     private void setupEventListeners() {
@@ -102,27 +159,7 @@ public class AppoitmentsView extends VerticalLayout {
     }
 
     private void updateList() {
-        try {	
-            String searchTerm = filterText.getValue();
-            Person currentPerson = personService.getCurrentPerson();
-            
-            if (searchTerm == null || searchTerm.trim().isEmpty()) {
-                // Se não há filtro, mostra appointments relacionados ao usuário atual
-                grid.setItems(appointmentService.findRelatedToPerson(currentPerson));
-            } else {
-                // Se há filtro, busca por nome do paciente nos appointments do usuário
-                grid.setItems(appointmentService.findRelatedToPerson(currentPerson).stream()
-                    .filter(appointment -> {
-                        Person patient = appointment.getPersonPatient();
-                        if (patient == null) return false;
-                        String fullName = patient.getFirstName() + " " + patient.getLastName();
-                        return fullName.toLowerCase().contains(searchTerm.toLowerCase());
-                    })
-                    .toList());
-            }
-        } catch (Exception e) {
-            showErrorNotification("Erro ao atualizar lista de agendamentos", e.getMessage());
-        }
+        grid.getDataProvider().refreshAll();
     }
 
     private void showErrorNotification(String title, String message) {
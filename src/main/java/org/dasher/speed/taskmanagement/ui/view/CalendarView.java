@@ -76,7 +76,7 @@ public class CalendarView extends VerticalLayout {
      * Refreshes the calendar view to reflect any changes
      */
     private void refreshCalendar() {
-        calendar.getEntryProvider().asInMemory().refreshAll();
+        calendar.getEntryProvider().refreshAll();
     }
 
     private void setupToolbar() { 
@@ -4,6 +4,7 @@ import org.dasher.speed.base.ui.component.ViewToolbar;
 import org.dasher.speed.taskmanagement.domain.Person;
 import org.dasher.speed.taskmanagement.domain.Doctor;
 import org.dasher.speed.taskmanagement.service.PersonService;
+import org.dasher.speed.taskmanagement.service.AvailabilityService;
 import org.dasher.speed.taskmanagement.service.CalendarDataManagerService;
 import org.dasher.speed.taskmanagement.ui.components.CalendarDialog;
 import org.dasher.speed.taskmanagement.ui.components.CalendarEventHandler;
@@ -22,6 +23,11 @@ import com.vaadin.flow.router.Route;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import jakarta.annotation.security.PermitAll;
 
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+
+import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
+
 
 @Route("doctor")
 @PageTitle("Doctors List")
@@ -29,17 +35,25 @@ import jakarta.annotation.security.PermitAll;
 @PermitAll 
 public class DoctorView extends VerticalLayout {
 
+    private static final Duration DEFAULT_APPOINTMENT_DURATION = Duration.ofHours(1);
+    private static final DateTimeFormatter SLOT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     private final PersonService personService;
+    private final AvailabilityService availabilityService;
     private final CalendarDataManagerService dataManager;
     private final CalendarEventHandler eventHandler;
     private final TextField filterText;
+    private final TextField specialtyField;
     private final Grid<Person> grid;
 
-    public DoctorView(PersonService personService, CalendarDataManagerService dataManager, CalendarEventHandler eventHandler) {
+    public DoctorView(PersonService personService, AvailabilityService availabilityService,
+                      CalendarDataManagerService dataManager, CalendarEventHandler eventHandler) {
         this.personService = personService;
+        this.availabilityService = availabilityService;
         this.dataManager = dataManager;
         this.eventHandler = eventHandler;
         this.filterText = new TextField();
+        this.specialtyField = new TextField();
         this.grid = new Grid<>();
 
         setupToolbar();
@@ -58,15 +72,25 @@ public class DoctorView extends VerticalLayout {
         filterText.setClearButtonVisible(true);
         filterText.setValueChangeMode(ValueChangeMode.LAZY);
         filterText.addValueChangeListener(e -> updateList());
-        add(new ViewToolbar("Doctors List", ViewToolbar.group(filterText)));
+
+        specialtyField.setPlaceholder("Specialty...");
+        specialtyField.setAriaLabel("Specialty");
+        specialtyField.setClearButtonVisible(true);
+
+        Button nextAvailableButton = new Button("Próximo horário", VaadinIcon.CLOCK.create());
+        nextAvailableButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        nextAvailableButton.addClickListener(e -> showNextAvailableSlot());
+
+        add(new ViewToolbar("Doctors List", ViewToolbar.group(filterText),
+            ViewToolbar.group(specialtyField, nextAvailableButton)));
     }
 
     private void configureGrid() {
         grid.setSizeFull();
         grid.addClassName("contact-grid");
-        grid.addColumn(Person::getFirstName).setHeader("First Name");
-        grid.addColumn(Person::getLastName).setHeader("Last Name");
-        grid.addColumn(Person::getPhone).setHeader("Phone");
+        grid.addColumn(Person::getFirstName).setHeader("First Name").setSortProperty("firstName");
+        grid.addColumn(Person::getLastName).setHeader("Last Name").setSortProperty("lastName");
+        grid.addColumn(Person::getPhone).setHeader("Phone").setSortProperty("phone");
         grid.addColumn(Person::getRole).setHeader("Role");
         grid.getColumns().forEach(col -> col.setAutoWidth(true));
         
@@ -75,6 +99,11 @@ public class DoctorView extends VerticalLayout {
             .setWidth("120px")
             .setFlexGrow(0);
         
+        // Carrega sob demanda, página a página, com ordenação feita no banco
+        grid.setItems(
+            query -> personService.searchDoctorsByName(filterText.getValue(), toSpringPageRequest(query)).stream(),
+            query -> (int) personService.countDoctorsByName(filterText.getValue()));
+        
         add(grid);
     }
 
@@ -88,10 +117,24 @@ public class DoctorView extends VerticalLayout {
     }
 
     private void updateList() {
-        String searchTerm = filterText.getValue();
-        grid.setItems(personService.searchDoctorsByName(searchTerm));
+        grid.getDataProvider().refreshAll();
     }
     
+    private void showNextAvailableSlot() {
+        try {
+            availabilityService.findNextAvailable(DEFAULT_APPOINTMENT_DURATION, specialtyField.getValue())
+                .ifPresentOrElse(slot -> {
+                    Notification.show(String.format("Próximo horário livre: %s %s em %s",
+                            slot.doctor().getFirstName(), slot.doctor().getLastName(),
+                            slot.start().format(SLOT_FORMATTER)),
+                        5000, Notification.Position.MIDDLE);
+                    openDoctorCalendar(slot.doctor());
+                }, () -> showErrorNotification("Disponibilidade", "Nenhum horário livre encontrado"));
+        } catch (Exception e) {
+            showErrorNotification("Erro ao buscar horários livres", e.getMessage());
+        }
+    }
+
     private void openDoctorCalendar(Person selectedDoctor) {
         try {
             Doctor doctor = validateDoctor(selectedDoctor);
@@ -2,23 +2,34 @@ package org.dasher.speed.taskmanagement.ui.view;
 
 import org.dasher.speed.base.ui.component.ViewToolbar;
 import org.dasher.speed.taskmanagement.domain.NotificationMessage;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationCursor;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationPage;
 import org.dasher.speed.taskmanagement.notificationApi.Dtos.enums.NotificationStatusEnum;
 import org.dasher.speed.taskmanagement.notificationApi.Service.NotificationClientService;
 import org.dasher.speed.taskmanagement.service.AppointmentService;
+import org.dasher.speed.taskmanagement.service.PersonService;
+import org.dasher.speed.taskmanagement.service.UnreadNotificationCounter;
 import org.dasher.speed.taskmanagement.ui.components.CalendarEventHandler;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @Route(value = "notifications")
 @PageTitle("My Notifications | LifePlus")
@@ -26,19 +37,40 @@ import java.util.Comparator;
 public class NotificationView  extends VerticalLayout {
     
     private final NotificationClientService notificationClientService;
+    private static final int PAGE_SIZE = 50;
+
     private final TextField filterText;
+    private final Checkbox unreadOnly;
+    private final Button markAllReadButton;
     private final Grid<NotificationMessage> grid;
     private final AppointmentService appointmentService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final PersonService personService;
+    // Destinatário das notificações: a pessoa logada, resolvida uma vez na thread da UI
+    private Long receiverId;
+    // Notificações já carregadas para o filtro atual e o cursor da próxima página
+    private final List<NotificationMessage> loadedNotifications = new ArrayList<>();
+    private NotificationCursor nextCursor;
+    private boolean exhausted;
+    // Página sendo buscada fora da thread da UI e até onde a grid já pediu itens
+    private CompletableFuture<NotificationPage> pendingPage;
+    private int requestedEnd;
+    // Muda a cada novo filtro, para descartar páginas que chegam de uma busca anterior
+    private int generation;
 
-    public NotificationView(NotificationClientService notificationClientService,  CalendarEventHandler eventHandler, AppointmentService appointmentService) {
+    public NotificationView(NotificationClientService notificationClientService,  CalendarEventHandler eventHandler, AppointmentService appointmentService,
+                            UnreadNotificationCounter unreadNotificationCounter, PersonService personService) {
         this.notificationClientService = notificationClientService;
         this.appointmentService = appointmentService;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.personService = personService;
         this.filterText = new TextField();
+        this.unreadOnly = new Checkbox("Unread only");
+        this.markAllReadButton = new Button("Mark all read");
         this.grid = new Grid<>();
 
         setupToolbar();
         configureGrid();
-        updateList(); 
 
         setSizeFull();
         addClassNames(LumoUtility.BoxSizing.BORDER, LumoUtility.Display.FLEX, LumoUtility.FlexDirection.COLUMN,
@@ -46,13 +78,15 @@ public class NotificationView  extends VerticalLayout {
     }
 
     private void setupToolbar() {
-        filterText.setPlaceholder("Filter by name...");
-        filterText.setAriaLabel("Filter by name");
+        filterText.setPlaceholder("Filter by title or message...");
+        filterText.setAriaLabel("Filter by title or message");
         filterText.setMinWidth("20em");
         filterText.setClearButtonVisible(true);
         filterText.setValueChangeMode(ValueChangeMode.LAZY);
         filterText.addValueChangeListener(e -> updateList());
-        add(new ViewToolbar("Nofications List", ViewToolbar.group(filterText)));
+        unreadOnly.addValueChangeListener(e -> updateList());
+        markAllReadButton.addClickListener(e -> markAllRead());
+        add(new ViewToolbar("Nofications List", ViewToolbar.group(filterText, unreadOnly, markAllReadButton)));
     }
 
     private void configureGrid() {
@@ -60,36 +94,140 @@ public class NotificationView  extends VerticalLayout {
         grid.addClassName("notification-grid");
         grid.addColumn(NotificationMessage::getTitle).setHeader("Title");
         grid.addColumn(NotificationMessage::getMessage).setHeader("Message");
-        grid.addColumn(notification -> notification.getCreatedAt().format(
+        grid.addColumn(notification -> notification.getCreatedAt() == null ? "" : notification.getCreatedAt().format(
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")
-        )).setHeader("Created Date").setSortable(true);
+        )).setHeader("Created Date");
         grid.addColumn(NotificationMessage::isRead).setHeader("Is Read");
         grid.getColumns().forEach(col -> col.setAutoWidth(true));
         grid.addItemClickListener(item -> openNotification(item.getItem()));
+        // Tamanho indefinido: a grid pede mais páginas conforme a rolagem, sem consulta de contagem
+        grid.setItems(this::fetchNotifications);
 
         add(grid);
     }
 
     private void updateList() {
-        // TODO: find by notification
-        String searchTerm = filterText.getValue();
-        var notifications = notificationClientService.getAllNotificationsByReceiverId(1L);
-        notifications.sort(Comparator.comparing(NotificationMessage::getCreatedAt).reversed());
-        grid.setItems(notifications);
+        // Novo filtro: recomeça a paginação do início
+        generation++;
+        loadedNotifications.clear();
+        nextCursor = null;
+        exhausted = false;
+        pendingPage = null;
+        requestedEnd = 0;
+        grid.getDataProvider().refreshAll();
+    }
+
+    // Responde só com o que já foi carregado e adianta a próxima página fora da thread da UI
+    private Stream<NotificationMessage> fetchNotifications(Query<NotificationMessage, Void> query) {
+        int end = query.getOffset() + query.getLimit();
+        requestedEnd = Math.max(requestedEnd, end);
+        // Busca com uma página de folga, para a rolagem normalmente já encontrar os itens carregados
+        if (loadedNotifications.size() < end + PAGE_SIZE) {
+            prefetch();
+        }
+        return loadedNotifications.stream()
+            .skip(query.getOffset())
+            .limit(query.getLimit());
+    }
+
+    private void prefetch() {
+        if (exhausted || pendingPage != null) {
+            return;
+        }
+        long receiver;
+        try {
+            receiver = receiverId();
+        } catch (IllegalStateException e) {
+            showErrorNotification("Erro ao carregar notificações", e.getMessage());
+            exhausted = true;
+            return;
+        }
+        int requestedGeneration = generation;
+        UI ui = UI.getCurrent();
+        pendingPage = notificationClientService.getNotificationsPageAsync(receiver, nextCursor, PAGE_SIZE,
+            unreadOnly.getValue(), filterText.getValue());
+        pendingPage.whenComplete((page, error) -> ui.access(() -> {
+            if (requestedGeneration != generation) {
+                return;
+            }
+            pendingPage = null;
+            if (error != null) {
+                showErrorNotification("Erro ao carregar notificações", messageOf(error));
+                exhausted = true;
+                return;
+            }
+            // A grid recebeu menos do que pediu e tomou isso como o fim: precisa consultar de novo
+            boolean shortServed = loadedNotifications.size() < requestedEnd;
+            loadedNotifications.addAll(page.items());
+            nextCursor = page.next();
+            exhausted = !page.hasNext();
+            if (shortServed) {
+                grid.getDataProvider().refreshAll();
+            } else if (loadedNotifications.size() < requestedEnd + PAGE_SIZE) {
+                prefetch();
+            }
+        }));
+    }
+
+    private long receiverId() {
+        if (receiverId == null) {
+            receiverId = personService.getCurrentPerson().getId().longValue();
+        }
+        return receiverId;
     }
     
-    private void openNotification(NotificationMessage selectedNotification) {
+    // Uma única requisição para todas as notificações, em vez de um PUT por item
+    private void markAllRead() {
+        long receiver;
         try {
-            selectedNotification.setRead(true);
-            notificationClientService.updateNotification(selectedNotification);
-            updateList();
-
-            this.ConfirmDialogNotification(selectedNotification);
-            
-            
-        } catch (Exception e) {
-            showErrorNotification("Erro ao abrir agenda do médico", e.getMessage());
+            receiver = receiverId();
+        } catch (IllegalStateException e) {
+            showErrorNotification("Erro ao marcar notificações como lidas", e.getMessage());
+            return;
         }
+        markAllReadButton.setEnabled(false);
+        UI ui = UI.getCurrent();
+        notificationClientService.markAllAsReadAsync(receiver)
+            .whenComplete((ignored, error) -> ui.access(() -> {
+                markAllReadButton.setEnabled(true);
+                if (error != null) {
+                    showErrorNotification("Erro ao marcar notificações como lidas", messageOf(error));
+                    return;
+                }
+                unreadNotificationCounter.markAllRead(receiver);
+                loadedNotifications.forEach(notification -> notification.setRead(true));
+                if (unreadOnly.getValue()) {
+                    updateList();
+                } else {
+                    grid.getDataProvider().refreshAll();
+                }
+            }));
+    }
+
+    private void openNotification(NotificationMessage selectedNotification) {
+        this.ConfirmDialogNotification(selectedNotification);
+
+        // A linha só muda depois que o serviço aceitar; até lá a alteração vai numa cópia
+        NotificationMessage read = new NotificationMessage(selectedNotification);
+        read.setRead(true);
+        UI ui = UI.getCurrent();
+        notificationClientService.updateNotificationAsync(read)
+            .whenComplete((ignored, error) -> ui.access(() -> {
+                if (error != null) {
+                    showErrorNotification("Erro ao abrir agenda do médico", messageOf(error));
+                    return;
+                }
+                if (!selectedNotification.isRead()) {
+                    unreadNotificationCounter.markRead(selectedNotification.getReceiverId());
+                }
+                selectedNotification.setRead(true);
+                grid.getDataProvider().refreshItem(selectedNotification);
+            }));
+    }
+
+    // Falhas assíncronas chegam embrulhadas em CompletionException
+    private static String messageOf(Throwable error) {
+        return error.getCause() != null ? error.getCause().getMessage() : error.getMessage();
     }
 
     private void showErrorNotification(String title, String message) {
@@ -124,9 +262,24 @@ public class NotificationView  extends VerticalLayout {
                 showErrorNotification("Erro ao aceitar agendamento", "Agendamento não encontrado");
                 return;
             }
-            selectedNotification.setNotificationStatusEnum(NotificationStatusEnum.INFO);
-            notificationClientService.updateNotification(selectedNotification);
-            updateList();
+            NotificationMessage answered = new NotificationMessage(selectedNotification);
+            answered.setNotificationStatusEnum(NotificationStatusEnum.INFO);
+            // O diálogo só abre ao ler a notificação: o PUT não pode desfazer a leitura ainda pendente
+            answered.setRead(true);
+            UI ui = UI.getCurrent();
+            notificationClientService.updateNotificationAsync(answered)
+                .whenComplete((ignored, error) -> ui.access(() -> {
+                    if (error != null) {
+                        showErrorNotification("Erro ao aceitar agendamento", messageOf(error));
+                        return;
+                    }
+                    if (!selectedNotification.isRead()) {
+                        unreadNotificationCounter.markRead(selectedNotification.getReceiverId());
+                    }
+                    selectedNotification.setRead(true);
+                    selectedNotification.setNotificationStatusEnum(NotificationStatusEnum.INFO);
+                    grid.getDataProvider().refreshItem(selectedNotification);
+                }));
         }catch (Exception e) {
             showErrorNotification("Erro ao aceitar agendamento", e.getMessage());
         }
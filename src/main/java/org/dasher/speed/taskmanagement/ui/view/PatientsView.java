@@ -24,6 +24,8 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.value.ValueChangeMode;
 
+import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
+
 @Route("patients")
 @PageTitle("Pacientes | LifePlus")
 @Menu(order = 1, icon = "vaadin:user-heart", title = "Patients")
@@ -65,9 +67,9 @@ public class PatientsView extends VerticalLayout {
     private void configureGrid() {
         grid.setSizeFull();
         grid.addClassName("contact-grid");
-        grid.addColumn(Person::getFirstName).setHeader("Nome");
-        grid.addColumn(Person::getLastName).setHeader("Sobrenome");
-        grid.addColumn(Person::getPhone).setHeader("Telefone");
+        grid.addColumn(Person::getFirstName).setHeader("Nome").setSortProperty("firstName");
+        grid.addColumn(Person::getLastName).setHeader("Sobrenome").setSortProperty("lastName");
+        grid.addColumn(Person::getPhone).setHeader("Telefone").setSortProperty("phone");
         grid.addColumn(person -> person.getRole().getDisplayName()).setHeader("Tipo");
         
         // Add calendar action column
@@ -78,6 +80,11 @@ public class PatientsView extends VerticalLayout {
         
         grid.getColumns().forEach(col -> col.setAutoWidth(true));
         
+        // Carrega sob demanda, página a página, com ordenação feita no banco
+        grid.setItems(
+            query -> personService.searchPatientsByName(filterText.getValue(), toSpringPageRequest(query)).stream(),
+            query -> (int) personService.countPatientsByName(filterText.getValue()));
+        
         add(grid);
     }
 
@@ -91,8 +98,7 @@ public class PatientsView extends VerticalLayout {
     }
 
     private void updateList() {
-        String searchTerm = filterText.getValue();
-        grid.setItems(personService.searchPatientsByName(searchTerm));
+        grid.getDataProvider().refreshAll();
     }
     
     private void openPatientCalendar(Person selectedPatient) {
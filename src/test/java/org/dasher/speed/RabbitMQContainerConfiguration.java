@@ -0,0 +1,21 @@
+package org.dasher.speed;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * A RabbitMQ broker in a container, for the messaging integration tests only. Kept out of
+ * {@link TestcontainersConfiguration} so tests without messaging do not need Docker.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class RabbitMQContainerConfiguration {
+
+    @Bean
+    @ServiceConnection
+    RabbitMQContainer rabbitContainer() {
+        return new RabbitMQContainer(DockerImageName.parse("rabbitmq:3.13-management-alpine"));
+    }
+}
@@ -0,0 +1,128 @@
+package org.dasher.speed.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load driver for comparing platform and virtual threads: each simulated user sends
+ * a request, waits for the answer and sends the next one. For every concurrency level it prints
+ * throughput, p50/p99 latency and the number of failed requests.
+ * <p>
+ * Start the application with and without {@code VIRTUAL_THREADS=true}, then run this class against
+ * it. See docs/technical/virtual-threads.md.
+ * </p>
+ * <pre>
+ * java ConcurrentUsersLoad [url] [levels] [seconds-per-level] [bearer-token]
+ * java ConcurrentUsersLoad http://localhost:8082/actuator/health 50,200,800,2000 20
+ * </pre>
+ */
+public class ConcurrentUsersLoad {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws Exception {
+        URI target = URI.create(args.length > 0 ? args[0] : "http://localhost:8082/actuator/health");
+        int[] levels = Arrays.stream((args.length > 1 ? args[1] : "50,200,800,2000").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        Duration perLevel = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        String token = args.length > 3 ? args[3] : null;
+
+        // O cliente também usa threads virtuais para que o gargalo medido seja o servidor
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(users)
+                    .build();
+            HttpRequest.Builder request = HttpRequest.newBuilder(target).timeout(REQUEST_TIMEOUT).GET();
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+
+            System.out.printf("%s, %ds por nível%n", target, perLevel.toSeconds());
+            System.out.printf("%8s %10s %9s %9s %8s%n", "users", "req/s", "p50 ms", "p99 ms", "errors");
+            for (int level : levels) {
+                print(level, run(client, request.build(), users, level, perLevel), perLevel);
+            }
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, ExecutorService users, int level,
+                              Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> results = new ArrayList<>(level);
+        for (int i = 0; i < level; i++) {
+            results.add(users.submit(() -> {
+                Result user = new Result();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            user.errors++;
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        user.errors++;
+                        continue;
+                    }
+                    user.add(System.nanoTime() - start);
+                }
+                return user;
+            }));
+        }
+
+        Result total = new Result();
+        for (Future<Result> result : results) {
+            total.merge(result.get());
+        }
+        return total;
+    }
+
+    private static void print(int level, Result result, Duration duration) {
+        long[] latencies = Arrays.copyOf(result.latencies, result.count);
+        Arrays.sort(latencies);
+        System.out.printf("%8d %10.1f %9.1f %9.1f %8d%n", level,
+                result.count / (double) duration.toSeconds(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), result.errors);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    // Latências de um usuário (ou do total) em nanossegundos
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void add(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        void merge(Result other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+    }
+}
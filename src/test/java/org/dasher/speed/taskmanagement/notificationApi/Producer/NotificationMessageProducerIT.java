@@ -0,0 +1,135 @@
+package org.dasher.speed.taskmanagement.notificationApi.Producer;
+
+import com.github.dockerjava.api.DockerClient;
+import org.dasher.speed.RabbitMQContainerConfiguration;
+import org.dasher.speed.taskmanagement.config.RabbitMQConfig;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.enums.NotificationStatusEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnectionAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.RabbitMQContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link NotificationMessageProducer} against a real broker: publisher confirms, a nack from
+ * a full queue, a confirm that never arrives and the broker's connection.blocked flow control.
+ */
+@SpringBootTest(classes = { RabbitMQConfig.class, NotificationMessageProducer.class }, properties = {
+    "notifications.publisher.confirm-window=2",
+    "notifications.publisher.confirm-timeout=PT1S" })
+@ImportAutoConfiguration({ RabbitAutoConfiguration.class, ServiceConnectionAutoConfiguration.class })
+@Import(RabbitMQContainerConfiguration.class)
+class NotificationMessageProducerIT {
+
+    private static final Duration WAIT = Duration.ofSeconds(15);
+
+    @Autowired
+    NotificationMessageProducer producer;
+
+    @Autowired
+    AmqpAdmin admin;
+
+    @Autowired
+    RabbitMQContainer rabbit;
+
+    @BeforeEach
+    void emptyQueue() {
+        admin.declareQueue(new Queue(RabbitMQConfig.NOTIFICATION_QUEUE, true));
+        admin.purgeQueue(RabbitMQConfig.NOTIFICATION_QUEUE, false);
+    }
+
+    @Test
+    void everyWindowIsConfirmed() {
+        PublishResult result = producer.publishAll(notifications(5));
+
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.confirmed()).isEqualTo(5);
+        assertThat(admin.getQueueInfo(RabbitMQConfig.NOTIFICATION_QUEUE).getMessageCount()).isEqualTo(5);
+    }
+
+    @Test
+    void stopsAtTheWindowTheBrokerNacks() {
+        // Fila limitada a 3 mensagens que recusa as excedentes: a quarta recebe nack
+        admin.deleteQueue(RabbitMQConfig.NOTIFICATION_QUEUE);
+        admin.declareQueue(QueueBuilder.durable(RabbitMQConfig.NOTIFICATION_QUEUE)
+            .maxLength(3)
+            .overflow(QueueBuilder.Overflow.rejectPublish)
+            .build());
+        try {
+            PublishResult result = producer.publishAll(notifications(5));
+
+            assertThat(result.isComplete()).isFalse();
+            assertThat(result.confirmed()).isEqualTo(2);
+            assertThat(result.failure()).isNotNull();
+        } finally {
+            admin.deleteQueue(RabbitMQConfig.NOTIFICATION_QUEUE);
+        }
+    }
+
+    @Test
+    void reportsATimeoutWhenTheBrokerStopsAnswering() {
+        DockerClient docker = rabbit.getDockerClient();
+        docker.pauseContainerCmd(rabbit.getContainerId()).exec();
+        // Volta depois do confirm-timeout, para o canal conseguir fechar
+        CompletableFuture<Void> resumed = CompletableFuture.runAsync(
+            () -> docker.unpauseContainerCmd(rabbit.getContainerId()).exec(),
+            CompletableFuture.delayedExecutor(3, TimeUnit.SECONDS));
+        try {
+            PublishResult result = producer.publishAll(notifications(1));
+
+            assertThat(result.confirmed()).isZero();
+            assertThat(result.failure()).isInstanceOf(AmqpTimeoutException.class);
+        } finally {
+            resumed.join();
+        }
+    }
+
+    @Test
+    void followsConnectionBlockedFromTheBroker() throws Exception {
+        // Limite de memória zero dispara o alarme; o broker bloqueia as conexões que publicam
+        rabbit.execInContainer("rabbitmqctl", "set_vm_memory_high_watermark", "0");
+        CompletableFuture<Void> publish;
+        try {
+            publish = CompletableFuture.runAsync(() -> producer.publish(notifications(1).get(0)));
+            await(producer::isBlocked);
+        } finally {
+            rabbit.execInContainer("rabbitmqctl", "set_vm_memory_high_watermark", "0.4");
+        }
+
+        await(() -> !producer.isBlocked());
+        publish.get(WAIT.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atingida em %s", WAIT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static List<NotificationMessageRecordDto> notifications(int count) {
+        return LongStream.rangeClosed(1, count)
+            .mapToObj(id -> new NotificationMessageRecordDto(1L, 2L, id, "Título", "Mensagem", false,
+                NotificationStatusEnum.INFO))
+            .toList();
+    }
+}
@@ -0,0 +1,115 @@
+package org.dasher.speed.taskmanagement.notificationApi.Producer;
+
+import org.dasher.speed.taskmanagement.config.RabbitMQConfig;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationMessageRecordDto;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.enums.NotificationStatusEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionBlockedEvent;
+import org.springframework.amqp.rabbit.connection.ConnectionUnblockedEvent;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationMessageProducerTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    // Canal dedicado que o RabbitTemplate entrega ao callback de invoke
+    private final RabbitOperations channel = mock(RabbitOperations.class);
+    private final NotificationMessageProducer producer =
+        new NotificationMessageProducer(rabbitTemplate, Runnable::run, 2, Duration.ofSeconds(1));
+
+    @BeforeEach
+    void setUp() {
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+            invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(channel));
+    }
+
+    @Test
+    void waitsForConfirmsAfterEachWindow() {
+        List<NotificationMessageRecordDto> notifications = notifications(5);
+
+        PublishResult result = producer.publishAll(notifications);
+
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.confirmed()).isEqualTo(5);
+        var order = inOrder(channel);
+        order.verify(channel).convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notifications.get(0));
+        order.verify(channel).convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notifications.get(1));
+        order.verify(channel).waitForConfirmsOrDie(1000);
+        order.verify(channel).convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notifications.get(2));
+        order.verify(channel).convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notifications.get(3));
+        order.verify(channel).waitForConfirmsOrDie(1000);
+        order.verify(channel).convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notifications.get(4));
+        order.verify(channel).waitForConfirmsOrDie(1000);
+        verify(rabbitTemplate, times(1)).invoke(any());
+    }
+
+    @Test
+    void stopsAtTheFirstUnconfirmedWindow() {
+        doNothing()
+            .doThrow(new AmqpTimeoutException("sem confirmação"))
+            .when(channel).waitForConfirmsOrDie(anyLong());
+
+        PublishResult result = producer.publishAll(notifications(5));
+
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.confirmed()).isEqualTo(2);
+        assertThat(result.failure()).isInstanceOf(AmqpTimeoutException.class);
+        verify(channel, times(4)).convertAndSend(eq(RabbitMQConfig.NOTIFICATION_QUEUE), any(Object.class));
+    }
+
+    @Test
+    void reportsNothingConfirmedWhenTheChannelCannotBeOpened() {
+        doThrow(new AmqpTimeoutException("broker indisponível")).when(rabbitTemplate).invoke(any());
+
+        PublishResult result = producer.publishAll(notifications(3));
+
+        assertThat(result.confirmed()).isZero();
+        assertThat(result.isComplete()).isFalse();
+        verify(channel, never()).waitForConfirmsOrDie(anyLong());
+    }
+
+    @Test
+    void publishAsyncCompletesExceptionallyWhenTheBrokerRejects() {
+        NotificationMessageRecordDto notification = notifications(1).get(0);
+        doThrow(new AmqpTimeoutException("broker indisponível"))
+            .when(rabbitTemplate).convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, notification);
+
+        assertThat(producer.publishAsync(notification)).isCompletedExceptionally();
+    }
+
+    @Test
+    void tracksBrokerFlowControl() {
+        producer.onConnectionBlocked(new ConnectionBlockedEvent(mock(Connection.class), "low memory"));
+        assertThat(producer.isBlocked()).isTrue();
+
+        producer.onConnectionUnblocked(new ConnectionUnblockedEvent(mock(Connection.class)));
+        assertThat(producer.isBlocked()).isFalse();
+    }
+
+    private static List<NotificationMessageRecordDto> notifications(int count) {
+        return LongStream.rangeClosed(1, count)
+            .mapToObj(id -> new NotificationMessageRecordDto(1L, 2L, id, "Título", "Mensagem", false,
+                NotificationStatusEnum.INFO))
+            .toList();
+    }
+}
@@ -0,0 +1,177 @@
+package org.dasher.speed.taskmanagement.notificationApi.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * State transitions of {@link CircuitBreakerInterceptor}, driven by a clock the test moves by hand.
+ */
+class CircuitBreakerInterceptorTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final byte[] BODY = new byte[0];
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2030-03-04T10:00:00Z"));
+    private final CircuitBreakerInterceptor breaker = new CircuitBreakerInterceptor(3, OPEN_DURATION, clock);
+    private final MockClientHttpRequest request =
+        new MockClientHttpRequest(HttpMethod.GET, URI.create("http://notifications/notification/api/notifications"));
+    private final ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        respond(HttpStatus.OK);
+    }
+
+    @Test
+    void opens_once_the_consecutive_failures_reach_the_threshold() throws IOException {
+        respond(HttpStatus.SERVICE_UNAVAILABLE);
+        call();
+        call();
+        // Um sucesso no meio zera a contagem
+        respond(HttpStatus.OK);
+        call();
+        respond(HttpStatus.SERVICE_UNAVAILABLE);
+        call();
+        call();
+        assertThat(call().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        verify(execution, times(6)).execute(any(), any());
+        assertRejected();
+    }
+
+    @Test
+    void rejects_without_calling_the_service_while_open() throws IOException {
+        open();
+        reset(execution);
+
+        assertRejected();
+        clock.advance(OPEN_DURATION.minusSeconds(1));
+        assertRejected();
+        verifyNoInteractions(execution);
+    }
+
+    @Test
+    void lets_exactly_one_trial_through_once_the_open_duration_passes() throws IOException {
+        open();
+        clock.advance(OPEN_DURATION);
+        reset(execution);
+        // A chamada de teste fica pendurada enquanto outra tenta passar
+        doAnswer(invocation -> {
+            assertRejected();
+            return new MockClientHttpResponse(BODY, HttpStatus.OK);
+        }).when(execution).execute(any(), any());
+
+        assertThat(call().getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        verify(execution).execute(any(), any());
+        // O sucesso fecha o circuito
+        respond(HttpStatus.OK);
+        call();
+        call();
+        verify(execution, times(3)).execute(any(), any());
+    }
+
+    @Test
+    void a_server_error_in_the_trial_reopens_the_circuit() throws IOException {
+        open();
+        clock.advance(OPEN_DURATION);
+        respond(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        call();
+
+        // Uma única falha basta para reabrir, e a espera recomeça a partir dela
+        assertRejected();
+        clock.advance(OPEN_DURATION.minusSeconds(1));
+        assertRejected();
+        clock.advance(Duration.ofSeconds(1));
+        respond(HttpStatus.OK);
+        assertThat(call().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void io_errors_count_as_failures() throws IOException {
+        doThrow(new IOException("connection refused")).when(execution).execute(any(), any());
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(this::call).isInstanceOf(IOException.class);
+        }
+
+        assertRejected();
+    }
+
+    private void open() throws IOException {
+        respond(HttpStatus.BAD_GATEWAY);
+        for (int i = 0; i < 3; i++) {
+            call();
+        }
+        assertRejected();
+    }
+
+    private ClientHttpResponse call() throws IOException {
+        return breaker.intercept(request, BODY, execution);
+    }
+
+    private void assertRejected() {
+        assertThatThrownBy(this::call).isInstanceOf(ResourceAccessException.class)
+            .hasMessageContaining("circuito aberto");
+    }
+
+    private void respond(HttpStatus status) throws IOException {
+        // doAnswer não chama o stub anterior, que pode ser a chamada de teste pendurada
+        doAnswer(invocation -> new MockClientHttpResponse(BODY, status)).when(execution).execute(any(), any());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
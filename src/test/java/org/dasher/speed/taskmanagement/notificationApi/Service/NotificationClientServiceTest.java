@@ -0,0 +1,167 @@
+package org.dasher.speed.taskmanagement.notificationApi.Service;
+
+import org.dasher.speed.taskmanagement.domain.NotificationMessage;
+import org.dasher.speed.taskmanagement.notificationApi.Dtos.NotificationPage;
+import org.dasher.speed.taskmanagement.security.JwtTokenService;
+import org.dasher.speed.taskmanagement.security.SecurityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withResourceNotFound;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * How paged reads fill the per-receiver cache and are answered from it, with and without server
+ * paging, and that cached notifications never leak out as shared instances.
+ */
+class NotificationClientServiceTest {
+
+    private static final String PAGE_URL = "/notification/api/notifications/page";
+
+    private final MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+    private final NotificationClientService service = newService(customizer, true);
+    private final MockRestServiceServer server = customizer.getServer();
+
+    @Test
+    void scrolling_fills_the_cache_and_later_reads_continue_from_its_end() {
+        expectPage(null, 3, 5, 4, 3);
+        // 3 já está em cache na segunda página; só o que vem depois dele é pedido
+        expectPage(3L, 2, 2, 1);
+        // Com filtro: os itens em cache saem daqui e o serviço filtra só o que falta
+        server.expect(requestTo(startsWith(PAGE_URL))).andExpect(queryParam("afterId", "1"))
+            .andExpect(queryParam("q", "Consulta%202"))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        // Uma página curta mostra que o cache chegou ao fim da lista
+        expectPage(1L, 2);
+
+        NotificationPage first = service.getNotificationsPage(1L, null, 2, false, null);
+        assertThat(first.items()).extracting(NotificationMessage::getId).containsExactly(5L, 4L);
+
+        NotificationPage second = service.getNotificationsPage(1L, first.next(), 2, false, null);
+        assertThat(second.items()).extracting(NotificationMessage::getId).containsExactly(3L, 2L);
+
+        assertThat(service.getNotificationsPage(1L, null, 10, false, " Consulta 2 ").items())
+            .extracting(NotificationMessage::getId).containsExactly(2L);
+
+        assertThat(service.getNotificationsPage(1L, second.next(), 2, false, null).items())
+            .extracting(NotificationMessage::getId).containsExactly(1L);
+        server.verify();
+
+        // Lista completa: reabrir a tela e filtrar não chegam mais ao serviço
+        assertThat(service.getNotificationsPage(1L, null, 50, false, null).items()).hasSize(5);
+        assertThat(service.getNotificationsPage(1L, null, 50, false, "consulta 4").items())
+            .extracting(NotificationMessage::getId).containsExactly(4L);
+        server.verify();
+    }
+
+    @Test
+    void callers_only_ever_see_copies_of_the_cached_notifications() {
+        expectPage(null, 51, 2, 1);
+        server.expect(requestTo("/notification/api/notifications/2"))
+            .andExpect(method(HttpMethod.PUT))
+            .andRespond(withSuccess());
+
+        NotificationMessage returned = service.getNotificationsPage(1L, null, 50, false, null).items().get(0);
+        returned.setRead(true);
+
+        assertThat(service.getNotificationsPage(1L, null, 50, true, null).items())
+            .extracting(NotificationMessage::getId).containsExactly(2L, 1L);
+
+        service.updateNotification(returned);
+        returned.setTitle("Alterado depois do PUT");
+
+        NotificationMessage cached = service.getNotificationsPage(1L, null, 50, false, null).items().get(0);
+        assertThat(cached).isNotSameAs(returned);
+        assertThat(cached.isRead()).isTrue();
+        assertThat(cached.getTitle()).isEqualTo("Consulta 2");
+        server.verify();
+    }
+
+    @Test
+    void without_server_paging_pages_are_cut_from_the_whole_list() {
+        MockServerRestTemplateCustomizer listCustomizer = new MockServerRestTemplateCustomizer();
+        NotificationClientService listService = newService(listCustomizer, false);
+        MockRestServiceServer listServer = listCustomizer.getServer();
+        // Uma notificação sem data vai para o fim da lista, sem quebrar a ordenação nem o cursor
+        String undated = """
+            {"id":9,"senderId":9,"receiverId":1,"title":"Sem data","message":"Lembrete","read":false,\
+            "notificationStatusEnum":"INFO"}""";
+        String list = json(1, 3, 2);
+        listServer.expect(requestTo("/notification/api/notifications?userId=1"))
+            .andRespond(withSuccess(list.substring(0, list.length() - 1) + "," + undated + "]",
+                MediaType.APPLICATION_JSON));
+
+        NotificationPage first = listService.getNotificationsPage(1L, null, 3, false, null);
+        assertThat(first.items()).extracting(NotificationMessage::getId).containsExactly(3L, 2L, 1L);
+        NotificationPage second = listService.getNotificationsPage(1L, first.next(), 3, false, null);
+        assertThat(second.items()).extracting(NotificationMessage::getId).containsExactly(9L);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(listService.getNotificationsPage(1L, null, 2, false, "sem data").items())
+            .extracting(NotificationMessage::getId).containsExactly(9L);
+        listServer.verify();
+    }
+
+    @Test
+    void marking_all_read_falls_back_to_one_update_per_unread_notification() {
+        server.expect(requestTo("/notification/api/notifications/read-all?userId=1"))
+            .andExpect(method(HttpMethod.PATCH))
+            .andRespond(withResourceNotFound());
+        // A notificação 1 já foi lida
+        String list = json(2, 1).replaceFirst("(\"id\":1,[^}]*\"read\":)false", "$1true");
+        server.expect(requestTo("/notification/api/notifications?userId=1"))
+            .andRespond(withSuccess(list, MediaType.APPLICATION_JSON));
+        // Só a que ainda não foi lida recebe o PUT
+        server.expect(requestTo("/notification/api/notifications/2"))
+            .andExpect(method(HttpMethod.PUT))
+            .andExpect(jsonPath("$.read").value(true))
+            .andRespond(withSuccess());
+
+        service.markAllAsRead(1L);
+
+        server.verify();
+        assertThat(service.getAllNotificationsByReceiverId(1L)).allMatch(NotificationMessage::isRead);
+    }
+
+    private static NotificationClientService newService(MockServerRestTemplateCustomizer customizer,
+                                                        boolean serverPaging) {
+        return new NotificationClientService(mock(JwtTokenService.class), mock(SecurityService.class),
+            new RestTemplateBuilder(customizer), Clock.systemUTC(), Runnable::run, "http://notifications",
+            Duration.ofSeconds(1), Duration.ofSeconds(1), 5, Duration.ofSeconds(30), Duration.ofMinutes(1),
+            Duration.ofMinutes(5), false, serverPaging);
+    }
+
+    private void expectPage(Long afterId, int limit, long... ids) {
+        var request = server.expect(requestTo(startsWith(PAGE_URL)))
+            .andExpect(queryParam("limit", String.valueOf(limit)));
+        if (afterId != null) {
+            request.andExpect(queryParam("afterId", afterId.toString()));
+        }
+        request.andRespond(withSuccess(json(ids), MediaType.APPLICATION_JSON));
+    }
+
+    // Uma notificação por hora, a de id maior é a mais nova
+    private static String json(long... ids) {
+        return Arrays.stream(ids)
+            .mapToObj(id -> """
+                {"id":%d,"senderId":9,"receiverId":1,"appointmentId":%d,"title":"Consulta %d","message":"Lembrete",\
+                "read":false,"notificationStatusEnum":"INFO","createdAt":"2030-03-04T%02d:00:00"}"""
+                .formatted(id, id, id, id))
+            .collect(Collectors.joining(",", "[", "]"));
+    }
+}
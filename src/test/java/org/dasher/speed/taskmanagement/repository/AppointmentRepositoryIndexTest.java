@@ -0,0 +1,265 @@
+package org.dasher.speed.taskmanagement.repository;
+
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.Doctor;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.domain.User;
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
+import org.dasher.speed.taskmanagement.domain.Enums.Role;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.patientIn;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.relatedTo;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.startingBefore;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.startingFrom;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.withDetails;
+import static org.dasher.speed.taskmanagement.repository.AppointmentSpecifications.withStatus;
+
+/**
+ * Runs each appointment query against H2 and checks, through {@code EXPLAIN}, that the database
+ * reads the {@code appointments} table through one of its indexes instead of scanning it. Also
+ * covers the overlap rules of {@link AppointmentRepository#existsConflict}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "org.dasher.speed.taskmanagement.repository.AppointmentRepositoryIndexTest$CapturedSql")
+class AppointmentRepositoryIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 4, 8, 0);
+    private static final Sort BY_START = Sort.by("appointmentDate");
+
+    @Autowired
+    AppointmentRepository appointmentRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Person doctor;
+    private Person patient;
+
+    @BeforeEach
+    void seed() {
+        doctor = person("doctor", PersonRole.DOCTOR);
+        patient = person("patient", PersonRole.PATIENT);
+        Person otherDoctor = person("other-doctor", PersonRole.DOCTOR);
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        // Volume suficiente para o otimizador preferir os índices a uma varredura
+        for (int i = 0; i < 500; i++) {
+            Appointment appointment = new Appointment(START.plusHours(i), START.plusHours(i).plusMinutes(30),
+                "Consulta " + i, i % 2 == 0 ? doctor : otherDoctor);
+            appointment.setPersonPatient(i % 5 == 0 ? patient : null);
+            appointment.setStatus(statuses[i % statuses.length]);
+            entityManager.persist(appointment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByDoctorAndDateRange_uses_an_index() {
+        assertUsesIndex(() -> appointmentRepository.findByDoctorAndDateRange(doctor.getId(),
+            START, START.plusDays(1)));
+        assertUsesIndex(() -> appointmentRepository.findCalendarByDoctorAndDateRange(doctor.getId(),
+            START, START.plusDays(1)));
+    }
+
+    @Test
+    void findByDoctorStartingIn_reads_an_index_range() {
+        assertUsesIndex(() -> appointmentRepository.findByDoctorStartingIn(doctor, START, START.plusDays(1)));
+        // Médico e as duas pontas da faixa como condições do índice, não como filtro depois da leitura
+        assertThat(plan(() -> appointmentRepository.findByDoctorStartingIn(doctor, START, START.plusDays(7))))
+            .containsIgnoringCase("IDX_APPOINTMENTS_DOCTOR_START_END: APPOINTMENT_DATE < ?3")
+            .containsIgnoringCase("AND PERSON_DOCTOR_ID = ?1")
+            .containsIgnoringCase("AND APPOINTMENT_DATE >= ?2");
+    }
+
+    @Test
+    void existsConflict_uses_an_index() {
+        assertUsesIndex(() -> appointmentRepository.existsConflict(doctor,
+            START.plusHours(2), START.plusHours(3), -1));
+    }
+
+    @Test
+    void existsConflict_ignores_adjacent_and_inactive_appointments() {
+        Person busy = person("busy-doctor", PersonRole.DOCTOR);
+        LocalDateTime nine = LocalDateTime.of(2031, 5, 6, 9, 0);
+        Appointment scheduled = new Appointment(nine, nine.plusHours(1), "Consulta", busy);
+        Appointment cancelled = new Appointment(nine.plusHours(2), nine.plusHours(3), "Consulta", busy);
+        cancelled.setStatus(AppointmentStatus.CANCELLED);
+        entityManager.persist(scheduled);
+        entityManager.persist(cancelled);
+        entityManager.flush();
+
+        assertThat(appointmentRepository.existsConflict(busy, nine.plusMinutes(30), nine.plusMinutes(90), -1)).isTrue();
+        assertThat(appointmentRepository.existsConflict(busy, nine.minusHours(1), nine.plusHours(2), -1)).isTrue();
+        // Encostar no fim ou no início não é conflito
+        assertThat(appointmentRepository.existsConflict(busy, nine.plusHours(1), nine.plusHours(2), -1)).isFalse();
+        assertThat(appointmentRepository.existsConflict(busy, nine.minusHours(1), nine, -1)).isFalse();
+        assertThat(appointmentRepository.existsConflict(busy, nine.plusHours(2), nine.plusHours(3), -1)).isFalse();
+        assertThat(appointmentRepository.existsConflict(busy, nine, nine.plusHours(1), scheduled.getId())).isFalse();
+    }
+
+    @Test
+    void findUpcomingByDoctor_uses_an_index() {
+        assertUsesIndex(() -> appointmentRepository.findUpcomingByDoctor(doctor, START.plusDays(3)));
+    }
+
+    @Test
+    void findRelatedToPersonAsAny_uses_an_index() {
+        assertUsesIndex(() -> appointmentRepository.findRelatedToPersonAsAny(patient));
+    }
+
+    @Test
+    void findRelatedToPersonAsAnyInRange_uses_an_index() {
+        assertUsesIndex(() -> appointmentRepository.findRelatedToPersonAsAnyInRange(doctor,
+            START, START.plusDays(1)));
+    }
+
+    @Test
+    void related_to_person_specifications_use_an_index() {
+        assertUsesIndex(() -> appointmentRepository.findBy(relatedTo(doctor).and(startingFrom(START))
+                .and(startingBefore(START.plusDays(1))).and(withDetails(BY_START)),
+            query -> query.limit(20).scroll(ScrollPosition.offset())));
+        assertUsesIndex(() -> appointmentRepository.count(relatedTo(doctor).and(withStatus(AppointmentStatus.SCHEDULED))));
+        assertUsesIndex(() -> appointmentRepository.count(relatedTo(patient).and(patientIn(List.of(patient.getId())))));
+    }
+
+    @Test
+    void related_to_person_windows_continue_after_the_last_seen_offset() {
+        List<Integer> all = appointmentRepository.findRelatedToPersonAsAny(doctor).stream().map(Appointment::getId).toList();
+
+        Window<Appointment> first = appointmentRepository.findBy(relatedTo(doctor).and(withDetails(BY_START)),
+            query -> query.limit(3).scroll(ScrollPosition.offset()));
+        // offset(2) é o terceiro item já visto: a janela começa no quarto
+        Window<Appointment> second = appointmentRepository.findBy(relatedTo(doctor).and(withDetails(BY_START)),
+            query -> query.limit(3).scroll(ScrollPosition.offset(2)));
+
+        assertThat(first.getContent()).extracting(Appointment::getId).containsExactlyElementsOf(all.subList(0, 3));
+        assertThat(second.getContent()).extracting(Appointment::getId).containsExactlyElementsOf(all.subList(3, 6));
+        assertThat(second.hasNext()).isTrue();
+        assertThat(appointmentRepository.count(relatedTo(doctor))).isEqualTo(all.size());
+
+        // Ordenar pelo paciente não descarta os agendamentos sem paciente
+        Window<Appointment> byPatient = appointmentRepository.findBy(
+            relatedTo(doctor).and(withDetails(Sort.by("person_patient.firstName", "appointmentDate"))),
+            query -> query.limit(all.size()).scroll(ScrollPosition.offset()));
+        assertThat(byPatient.getContent()).hasSize(all.size());
+    }
+
+    @Test
+    void doctor_and_patient_queries_use_an_index() {
+        assertUsesIndex(() -> appointmentRepository.findByDoctor(doctor.getId()));
+        assertUsesIndex(() -> appointmentRepository.findByPerson(patient));
+        assertUsesIndex(() -> appointmentRepository.findByPersonAndDateRange(patient, START, START.plusDays(5)));
+        assertUsesIndex(() -> appointmentRepository.findByPatientIds(List.of(patient.getId())));
+        assertUsesIndex(() -> appointmentRepository.countByPatientIds(List.of(patient.getId())));
+    }
+
+    @Test
+    void grid_pages_load_doctor_and_patient_in_the_same_query() {
+        PageRequest secondPage = PageRequest.of(1, 20, BY_START);
+        assertSingleQuery(() -> appointmentRepository.findAllWithDetails(secondPage), START.plusHours(20));
+        assertSingleQuery(() -> appointmentRepository.findByPatientIds(List.of(patient.getId()), secondPage),
+            START.plusHours(100));
+    }
+
+    private void assertSingleQuery(Supplier<Slice<Appointment>> query, LocalDateTime firstStart) {
+        CapturedSql.statements.clear();
+
+        Slice<Appointment> page = query.get();
+        page.forEach(appointment -> {
+            appointment.getPersonDoctor().getFirstName();
+            if (appointment.getPersonPatient() != null) {
+                appointment.getPersonPatient().getFirstName();
+            }
+        });
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getContent().get(0).getAppointmentDate()).isEqualTo(firstStart);
+        assertThat(CapturedSql.statements).hasSize(1);
+    }
+
+    @Test
+    void schedule_index_queries_use_an_index() {
+        assertUsesIndex(() -> appointmentRepository.findActiveIntervalsByDoctor(doctor, START));
+        assertUsesIndex(() -> appointmentRepository.findActiveIntervalsByDoctorsInRange(List.of(doctor.getId()),
+            START, START.plusDays(7)));
+    }
+
+    private void assertUsesIndex(Runnable query) {
+        for (String plan : plans(query)) {
+            assertThat(plan).doesNotContainIgnoringCase("APPOINTMENTS.tableScan");
+        }
+    }
+
+    private String plan(Runnable query) {
+        return String.join("\n", plans(query));
+    }
+
+    // Plano do H2 para cada comando da consulta que lê a tabela appointments
+    private List<String> plans(Runnable query) {
+        CapturedSql.statements.clear();
+        query.run();
+        List<String> plans = CapturedSql.statements.stream()
+            .filter(sql -> sql.toLowerCase().contains("appointments"))
+            .map(sql -> jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class))
+            .toList();
+        assertThat(plans).isNotEmpty();
+        return plans;
+    }
+
+    private Person person(String name, PersonRole role) {
+        User user = new User();
+        user.setEmail(name + "@lifeplus.test");
+        user.setPassword("Passw0rd@test");
+        user.setRole(Role.USER);
+        entityManager.persist(user);
+
+        Person person = new Person();
+        person.setFirstName(name);
+        person.setLastName("Teste");
+        person.setRole(role);
+        person.setUser(user);
+        entityManager.persist(person);
+        if (role == PersonRole.DOCTOR) {
+            Doctor doctorEntity = new Doctor(person);
+            person.setDoctor(doctorEntity);
+            entityManager.persist(doctorEntity);
+        }
+        return person;
+    }
+
+    /**
+     * Collects the SQL Hibernate sends to the database, so the test can ask H2 for its plan.
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.Appointment.AppointmentStatus;
+import org.dasher.speed.taskmanagement.domain.Doctor;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.domain.User;
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
+import org.dasher.speed.taskmanagement.domain.Enums.Role;
+import org.dasher.speed.taskmanagement.repository.AppointmentRepository;
+import org.dasher.speed.taskmanagement.security.SecurityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Many threads book overlapping slots of a few doctors at once through
+ * {@link AppointmentService#book}; afterwards no doctor may have two active appointments that
+ * overlap, and every successful booking must be in the database. Status changes that take a slot
+ * again go through the same check.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ AppointmentService.class, DoctorBookingLocks.class, DoctorScheduleIndex.class, PersonService.class,
+    PersonNameIndex.class, SecurityService.class })
+class AppointmentBookingConcurrencyTest {
+
+    private static final int DOCTORS = 4;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final LocalDateTime DAY = LocalDateTime.now().plusDays(7).withHour(8).withMinute(0)
+        .withSecond(0).withNano(0);
+
+    @MockitoBean
+    NotificationMessageService notificationMessageService;
+
+    @Autowired
+    AppointmentService appointmentService;
+
+    @Autowired
+    AppointmentRepository appointmentRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final List<Person> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < DOCTORS; i++) {
+                doctors.add(doctor("stress-doctor-" + i));
+            }
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Appointment").executeUpdate();
+            entityManager.createQuery("DELETE FROM Doctor").executeUpdate();
+            entityManager.createQuery("DELETE FROM Person").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+        });
+    }
+
+    @Test
+    void concurrent_bookings_never_double_book_a_doctor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    // Horários de 30 ou 60 minutos em passos de 15: muitos se sobrepõem sem serem iguais
+                    LocalDateTime slot = DAY.plusMinutes(15L * random.nextInt(16));
+                    Appointment appointment = new Appointment(slot, slot.plusMinutes(random.nextBoolean() ? 30 : 60),
+                        "Consulta", doctors.get(random.nextInt(DOCTORS)));
+                    try {
+                        appointmentService.book(appointment);
+                        booked.incrementAndGet();
+                    } catch (IllegalArgumentException conflict) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        List<Appointment> saved = appointmentRepository.findAll();
+        assertThat(booked.get() + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(rejected.get()).isPositive();
+        assertThat(saved).hasSize(booked.get());
+
+        Map<Integer, List<Appointment>> byDoctor = saved.stream()
+            .collect(Collectors.groupingBy(appointment -> appointment.getPersonDoctor().getId()));
+        for (List<Appointment> agenda : byDoctor.values()) {
+            agenda.sort(Comparator.comparing(Appointment::getAppointmentDate));
+            for (int i = 1; i < agenda.size(); i++) {
+                assertThat(agenda.get(i).getAppointmentDate())
+                    .as("agendamento %d sobreposto ao %d", agenda.get(i).getId(), agenda.get(i - 1).getId())
+                    .isAfterOrEqualTo(agenda.get(i - 1).getEndDate());
+            }
+        }
+    }
+
+    @Test
+    void reactivating_a_cancelled_appointment_cannot_take_a_booked_slot() {
+        Person doctor = doctors.get(0);
+        Appointment first = appointmentService.book(new Appointment(DAY, DAY.plusHours(1), "Consulta", doctor));
+        appointmentService.updateStatus(first.getId(), AppointmentStatus.CANCELLED);
+        appointmentService.book(new Appointment(DAY.plusMinutes(30), DAY.plusMinutes(90), "Consulta", doctor));
+
+        assertThatThrownBy(() -> appointmentService.updateStatus(first.getId(), AppointmentStatus.SCHEDULED))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(appointmentRepository.findById(first.getId())).get()
+            .extracting(Appointment::getStatus).isEqualTo(AppointmentStatus.CANCELLED);
+    }
+
+    private Person doctor(String name) {
+        User user = new User();
+        user.setEmail(name + "@lifeplus.test");
+        user.setPassword("Passw0rd@test");
+        user.setRole(Role.USER);
+        entityManager.persist(user);
+
+        Person person = new Person();
+        person.setFirstName(name);
+        person.setLastName("Teste");
+        person.setRole(PersonRole.DOCTOR);
+        person.setUser(user);
+        entityManager.persist(person);
+        Doctor doctor = new Doctor(person);
+        person.setDoctor(doctor);
+        entityManager.persist(doctor);
+        return person;
+    }
+}
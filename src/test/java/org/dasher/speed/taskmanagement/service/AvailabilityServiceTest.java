@@ -0,0 +1,126 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.AppointmentInterval;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.repository.AppointmentRepository;
+import org.dasher.speed.taskmanagement.repository.PersonRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Boundaries of the free-slot search: working hours, merging of busy intervals, the window walk
+ * up to the horizon and the batching of doctor ids.
+ */
+class AvailabilityServiceTest {
+
+    // Segunda-feira
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 3, 4, 0, 0);
+    private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final PersonRepository personRepository = mock(PersonRepository.class);
+    private final AvailabilityService service = new AvailabilityService(appointmentRepository, personRepository,
+        Clock.fixed(MONDAY.withHour(6).toInstant(ZoneOffset.UTC), ZoneOffset.UTC), "08:00", "18:00",
+        EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), Duration.ofMinutes(30), Period.ofDays(7),
+        Period.ofDays(90));
+
+    @Test
+    void a_slot_ending_exactly_at_closing_time_is_offered() {
+        busy(new AppointmentInterval(1, 1, MONDAY.withHour(8), MONDAY.withHour(17)));
+
+        List<AvailableSlot> slots = service.findFreeSlots(List.of(doctor(1)), ONE_HOUR,
+            MONDAY, MONDAY.plusDays(1), 10);
+
+        assertThat(slots).singleElement().satisfies(slot -> {
+            assertThat(slot.start()).isEqualTo(MONDAY.withHour(17));
+            assertThat(slot.end()).isEqualTo(MONDAY.withHour(18));
+        });
+        // Noventa minutos já passariam do fim do expediente
+        assertThat(service.findFreeSlots(List.of(doctor(1)), Duration.ofMinutes(90), MONDAY, MONDAY.plusDays(1), 10))
+            .isEmpty();
+    }
+
+    @Test
+    void overlapping_and_touching_busy_intervals_are_merged() {
+        busy(new AppointmentInterval(1, 1, MONDAY.withHour(8), MONDAY.withHour(10)),
+            new AppointmentInterval(2, 1, MONDAY.withHour(9), MONDAY.withHour(11)),
+            new AppointmentInterval(3, 1, MONDAY.withHour(11), MONDAY.withHour(12)),
+            new AppointmentInterval(4, 1, MONDAY.withHour(13).withMinute(10), MONDAY.withHour(13).withMinute(20)));
+
+        List<AvailableSlot> slots = service.findFreeSlots(List.of(doctor(1)), ONE_HOUR,
+            MONDAY, MONDAY.plusDays(1), 3);
+
+        // 12h-13h cabe; o intervalo das 13h10 empurra o próximo para 13h30, alinhado ao passo de 30 minutos
+        assertThat(slots).extracting(AvailableSlot::start)
+            .containsExactly(MONDAY.withHour(12), MONDAY.withHour(13).withMinute(30), MONDAY.withHour(14).withMinute(30));
+    }
+
+    @Test
+    void an_exhausted_horizon_returns_nothing_after_walking_every_window() {
+        when(personRepository.findDoctorIdsBySpecialty(null)).thenReturn(List.of(1));
+        // Agenda cheia até depois do horizonte
+        busy(new AppointmentInterval(1, 1, MONDAY, MONDAY.plusDays(120)));
+
+        assertThat(service.findNextAvailable(ONE_HOUR, " ")).isEmpty();
+
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        // 90 dias em janelas de 7: 12 janelas cheias e uma de 6 dias
+        verify(appointmentRepository, times(13)).findActiveIntervalsByDoctorsInRange(anyCollection(), any(), to.capture());
+        assertThat(to.getValue()).isEqualTo(MONDAY.withHour(6).plusDays(90));
+    }
+
+    @Test
+    void the_first_free_window_ends_the_walk() {
+        when(personRepository.findDoctorIdsBySpecialty("Cardiologia")).thenReturn(List.of(1));
+        when(personRepository.findById(1)).thenReturn(Optional.of(doctor(1)));
+        busy(new AppointmentInterval(1, 1, MONDAY, MONDAY.plusDays(7).withHour(9)));
+
+        assertThat(service.findNextAvailable(ONE_HOUR, " Cardiologia ")).hasValueSatisfying(slot ->
+            assertThat(slot.start()).isEqualTo(MONDAY.plusDays(7).withHour(9)));
+        verify(appointmentRepository, times(2)).findActiveIntervalsByDoctorsInRange(anyCollection(), any(), any());
+    }
+
+    @Test
+    void doctor_ids_are_queried_in_batches_of_500() {
+        busy();
+        List<Person> doctors = IntStream.rangeClosed(1, 501).mapToObj(AvailabilityServiceTest::doctor).toList();
+
+        assertThat(service.findFreeSlots(doctors, ONE_HOUR, MONDAY, MONDAY.plusDays(1), 5)).hasSize(5);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Integer>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(appointmentRepository, times(2)).findActiveIntervalsByDoctorsInRange(batches.capture(), any(), any());
+        assertThat(batches.getAllValues()).extracting(Collection::size).containsExactly(500, 1);
+    }
+
+    private void busy(AppointmentInterval... intervals) {
+        when(appointmentRepository.findActiveIntervalsByDoctorsInRange(anyCollection(), any(), any()))
+            .thenReturn(List.of(intervals));
+    }
+
+    private static Person doctor(int id) {
+        Person doctor = new Person();
+        doctor.setId(id);
+        return doctor;
+    }
+}
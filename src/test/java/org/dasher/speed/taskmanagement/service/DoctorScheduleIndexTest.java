@@ -0,0 +1,169 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Appointment;
+import org.dasher.speed.taskmanagement.domain.AppointmentInterval;
+import org.dasher.speed.taskmanagement.domain.Person;
+import org.dasher.speed.taskmanagement.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Overlap rules of {@link DoctorScheduleIndex.Schedule}, which must answer exactly as
+ * {@link AppointmentRepository#existsConflict} does, and the fallback to the database for slots
+ * the index does not cover.
+ */
+class DoctorScheduleIndexTest {
+
+    private static final LocalDateTime TODAY = LocalDateTime.of(2030, 3, 4, 0, 0);
+    private static final LocalDateTime NINE = TODAY.withHour(9);
+    private static final int DOCTOR_ID = 7;
+
+    private final Clock clock = Clock.fixed(TODAY.withHour(6).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    private DoctorScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DoctorScheduleIndex(clock);
+        ReflectionTestUtils.setField(index, "ttl", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void touching_intervals_do_not_overlap() {
+        DoctorScheduleIndex.Schedule schedule = schedule(interval(1, NINE, NINE.plusHours(1)));
+
+        assertThat(schedule.overlaps(NINE.plusHours(1), NINE.plusHours(2), null)).isFalse();
+        assertThat(schedule.overlaps(NINE.minusHours(1), NINE, null)).isFalse();
+        assertThat(schedule.overlaps(NINE.plusMinutes(30), NINE.plusMinutes(90), null)).isTrue();
+        assertThat(schedule.overlaps(NINE.minusMinutes(30), NINE.plusMinutes(30), null)).isTrue();
+        assertThat(schedule.overlaps(NINE.minusHours(1), NINE.plusHours(2), null)).isTrue();
+    }
+
+    @Test
+    void zero_length_intervals_follow_the_database_predicate() {
+        // Mesma regra do banco: início < fim pedido e fim > início pedido
+        DoctorScheduleIndex.Schedule schedule = schedule(interval(1, NINE, NINE));
+
+        assertThat(schedule.overlaps(NINE.minusHours(1), NINE.plusHours(1), null)).isTrue();
+        assertThat(schedule.overlaps(NINE, NINE.plusHours(1), null)).isFalse();
+        assertThat(schedule.overlaps(NINE.minusHours(1), NINE, null)).isFalse();
+
+        DoctorScheduleIndex.Schedule busy = schedule(interval(2, NINE, NINE.plusHours(1)));
+        assertThat(busy.overlaps(NINE.plusMinutes(30), NINE.plusMinutes(30), null)).isTrue();
+        assertThat(busy.overlaps(NINE, NINE, null)).isFalse();
+        assertThat(busy.overlaps(NINE.plusHours(1), NINE.plusHours(1), null)).isFalse();
+    }
+
+    @Test
+    void excluding_or_removing_the_interval_with_the_latest_end_uses_the_next_latest() {
+        // O intervalo 1 começa antes e termina depois do 2: é ele quem define o maior fim
+        DoctorScheduleIndex.Schedule schedule = schedule(
+            interval(1, NINE.minusHours(1), NINE.plusHours(3)),
+            interval(2, NINE, NINE.plusHours(1)));
+
+        assertThat(schedule.overlaps(NINE.plusHours(2), NINE.plusHours(4), null)).isTrue();
+        assertThat(schedule.overlaps(NINE.plusHours(2), NINE.plusHours(4), 1)).isFalse();
+        assertThat(schedule.overlaps(NINE.plusMinutes(30), NINE.plusHours(4), 1)).isTrue();
+
+        DoctorScheduleIndex.Schedule withoutFirst = schedule.without(1);
+        assertThat(withoutFirst.size()).isEqualTo(1);
+        assertThat(withoutFirst.overlaps(NINE.plusHours(2), NINE.plusHours(4), null)).isFalse();
+        assertThat(withoutFirst.overlaps(NINE.plusMinutes(30), NINE.plusHours(4), null)).isTrue();
+    }
+
+    @Test
+    void removing_an_appointment_updates_the_loaded_snapshot() {
+        Person doctor = doctor();
+        index.load(DOCTOR_ID, from -> List.of(
+            interval(1, NINE.minusHours(1), NINE.plusHours(3)),
+            interval(2, NINE, NINE.plusHours(1))));
+        Appointment longest = appointment(1, doctor, NINE.minusHours(1), NINE.plusHours(3));
+
+        // Sem transação ativa a alteração é aplicada na hora
+        index.remove(longest);
+
+        DoctorScheduleIndex.Schedule schedule = index.find(DOCTOR_ID).orElseThrow();
+        assertThat(schedule.size()).isEqualTo(1);
+        assertThat(schedule.overlaps(NINE.plusHours(2), NINE.plusHours(4), null)).isFalse();
+
+        index.record(appointment(3, doctor, NINE.plusHours(2), NINE.plusHours(3)));
+        assertThat(index.find(DOCTOR_ID).orElseThrow().overlaps(NINE.plusHours(2), NINE.plusHours(4), null)).isTrue();
+    }
+
+    @Test
+    void moving_an_appointment_to_another_doctor_frees_the_previous_doctors_slot() {
+        int otherDoctorId = DOCTOR_ID + 1;
+        index.load(DOCTOR_ID, from -> List.of(interval(1, NINE, NINE.plusHours(1))));
+        index.load(otherDoctorId, from -> List.of());
+        Person otherDoctor = new Person();
+        otherDoctor.setId(otherDoctorId);
+
+        index.record(appointment(1, otherDoctor, NINE, NINE.plusHours(1)));
+
+        assertThat(index.find(DOCTOR_ID).orElseThrow().overlaps(NINE, NINE.plusHours(1), null)).isFalse();
+        assertThat(index.find(otherDoctorId).orElseThrow().overlaps(NINE, NINE.plusHours(1), null)).isTrue();
+    }
+
+    @Test
+    void slots_before_today_are_checked_in_the_database() {
+        AppointmentRepository repository = mock(AppointmentRepository.class);
+        when(repository.findActiveIntervalsByDoctor(any(), any())).thenReturn(List.of());
+        when(repository.existsConflict(any(), any(), any(), any())).thenReturn(true);
+        AppointmentService service = new AppointmentService(repository, mock(NotificationMessageService.class),
+            index, mock(PersonService.class), mock(DoctorBookingLocks.class), mock(PlatformTransactionManager.class));
+        Person doctor = doctor();
+
+        LocalDateTime yesterday = NINE.minusDays(1);
+        assertThat(index.load(DOCTOR_ID, from -> List.of()).covers(yesterday)).isFalse();
+        assertThat(service.hasConflictingAppointments(doctor, yesterday, yesterday.plusHours(1), null)).isTrue();
+        verify(repository).existsConflict(eq(doctor), eq(yesterday), eq(yesterday.plusHours(1)), eq(-1));
+
+        // A partir de hoje a resposta vem do índice, sem consulta
+        assertThat(service.hasConflictingAppointments(doctor, NINE, NINE.plusHours(1), null)).isFalse();
+        verify(repository, never()).existsConflict(any(), eq(NINE), any(), any());
+    }
+
+    @Test
+    void snapshots_older_than_the_ttl_are_misses() {
+        index.load(DOCTOR_ID, from -> List.of());
+        assertThat(index.find(DOCTOR_ID)).isPresent();
+
+        ReflectionTestUtils.setField(index, "ttl", Duration.ofMinutes(-1));
+        assertThat(index.find(DOCTOR_ID)).isEmpty();
+    }
+
+    private DoctorScheduleIndex.Schedule schedule(AppointmentInterval... intervals) {
+        return DoctorScheduleIndex.Schedule.of(TODAY, clock.instant(), List.of(intervals));
+    }
+
+    private static AppointmentInterval interval(int id, LocalDateTime start, LocalDateTime end) {
+        return new AppointmentInterval(id, DOCTOR_ID, start, end);
+    }
+
+    private static Person doctor() {
+        Person doctor = new Person();
+        doctor.setId(DOCTOR_ID);
+        return doctor;
+    }
+
+    private static Appointment appointment(int id, Person doctor, LocalDateTime start, LocalDateTime end) {
+        Appointment appointment = new Appointment(start, end, "Consulta", doctor);
+        appointment.setId(id);
+        return appointment;
+    }
+}
@@ -0,0 +1,78 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Enums.PersonRole;
+import org.dasher.speed.taskmanagement.domain.PersonName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matching and ranking rules of {@link PersonNameIndex}, and how writes change the answers.
+ */
+class PersonNameIndexTest {
+
+    private static final int ALL = Integer.MAX_VALUE;
+
+    private final PersonNameIndex index = new PersonNameIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.ensureLoaded(() -> List.of(
+            new PersonName(1, "Ana", "Souza", PersonRole.PATIENT),
+            new PersonName(2, "Mariana", "Lima", PersonRole.PATIENT),
+            new PersonName(3, "João", "Anastácio", PersonRole.DOCTOR),
+            new PersonName(4, "Bruno", "Dias", PersonRole.PATIENT),
+            new PersonName(5, "Luana", "Ramos", PersonRole.DOCTOR)));
+    }
+
+    @Test
+    void one_and_two_letter_terms_match_word_starts_before_substrings() {
+        // "An" começa palavra em 1 e 3; em 2 e 5 aparece no meio
+        assertThat(index.search("an", null, ALL)).containsExactly(1, 3, 2, 5);
+        assertThat(index.search("b", null, ALL)).containsExactly(4);
+        assertThat(index.search("z", null, ALL)).containsExactly(1);
+        assertThat(index.search("x", null, ALL)).isEmpty();
+    }
+
+    @Test
+    void terms_are_folded_and_match_across_words() {
+        assertThat(index.search("JOAO", null, ALL)).containsExactly(3);
+        assertThat(index.search("  Anastacio ", null, ALL)).containsExactly(3);
+        assertThat(index.search("na sou", null, ALL)).containsExactly(1);
+        assertThat(index.search("", null, ALL)).isEmpty();
+    }
+
+    @Test
+    void word_start_matches_rank_before_other_substrings() {
+        assertThat(index.search("ana", null, ALL)).containsExactly(1, 3, 2, 5);
+        assertThat(index.search("ana", null, 2)).containsExactly(1, 3);
+        // O limite também corta o segundo grupo
+        assertThat(index.search("ana", null, 3)).containsExactly(1, 3, 2);
+    }
+
+    @Test
+    void the_role_filter_applies_to_both_groups() {
+        assertThat(index.search("ana", PersonRole.PATIENT, ALL)).containsExactly(1, 2);
+        assertThat(index.search("ana", PersonRole.DOCTOR, ALL)).containsExactly(3, 5);
+        assertThat(index.search("a", PersonRole.DOCTOR, ALL)).containsExactly(3, 5);
+    }
+
+    @Test
+    void inserts_renames_and_deletes_change_the_answers() {
+        // Sem transação ativa as alterações são aplicadas na hora
+        index.put(new PersonName(6, "Anabela", "Costa", PersonRole.PATIENT));
+        assertThat(index.search("ana", PersonRole.PATIENT, ALL)).containsExactly(1, 6, 2);
+
+        index.put(new PersonName(1, "Beatriz", "Souza", PersonRole.PATIENT));
+        assertThat(index.search("ana", PersonRole.PATIENT, ALL)).containsExactly(6, 2);
+        assertThat(index.search("bea", null, ALL)).containsExactly(1);
+
+        index.remove(6);
+        assertThat(index.search("ana", PersonRole.PATIENT, ALL)).containsExactly(2);
+        assertThat(index.search("cos", null, ALL)).isEmpty();
+        assertThat(index.size()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,134 @@
+package org.dasher.speed.taskmanagement.service;
+
+import org.dasher.speed.taskmanagement.domain.Enums.Role;
+import org.dasher.speed.taskmanagement.domain.User;
+import org.dasher.speed.taskmanagement.notificationApi.Service.NotificationClientService;
+import org.dasher.speed.taskmanagement.security.JwtTokenService;
+import org.dasher.speed.taskmanagement.security.SecurityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * When the locally kept unread counts are reconciled with the notification service.
+ */
+class UnreadNotificationCounterTest {
+
+    private static final Instant START = Instant.parse("2030-03-04T10:00:00Z");
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(5);
+
+    private final NotificationClientService client = mock(NotificationClientService.class);
+    private final Clock clock = mock(Clock.class);
+    private final UnreadNotificationCounter counter =
+        new UnreadNotificationCounter(client, clock, REFRESH_AFTER, Duration.ofMinutes(30));
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(START);
+        serviceCount(1L, 3);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void an_attaching_badge_reloads_a_count_older_than_the_refresh_interval() {
+        List<Integer> pushed = new ArrayList<>();
+        counter.subscribe(1L, pushed::add);
+        counter.onNotificationPublished(new NotificationPublishedEvent(1L));
+        assertThat(pushed).containsExactly(3, 4);
+
+        // Ainda dentro do prazo: o novo badge usa a contagem local
+        when(clock.instant()).thenReturn(START.plus(REFRESH_AFTER).minusSeconds(1));
+        counter.subscribe(1L, pushed::add);
+        verify(client).getCountNotificationsByReceiverIdAsync(1L);
+
+        // Vencido: o valor do serviço substitui o que foi contado aqui
+        when(clock.instant()).thenReturn(START.plus(REFRESH_AFTER));
+        serviceCount(1L, 2);
+        counter.subscribe(1L, pushed::add);
+        assertThat(pushed).containsExactly(3, 4, 4, 4, 2, 2, 2);
+        assertThat(counter.unreadCount(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void the_periodic_refresh_only_reloads_receivers_with_a_badge_open() {
+        signIn("ana@lifeplus.test");
+        counter.subscribe(1L, unread -> { }).cancel();
+        serviceCount(2L, 7);
+        counter.subscribe(2L, unread -> { });
+
+        when(clock.instant()).thenReturn(START.plus(REFRESH_AFTER));
+        counter.refreshSubscribed();
+
+        verify(client, times(1)).getCountNotificationsByReceiverIdAsync(1L);
+        verify(client, times(2)).getCountNotificationsByReceiverIdAsync(2L);
+    }
+
+    @Test
+    void the_periodic_refresh_calls_the_service_as_the_subscriber() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        NotificationClientService realClient = new NotificationClientService(
+            new JwtTokenService("defaultSecretKey12345678901234567890", 86400000, 100), new SecurityService(),
+            new RestTemplateBuilder(customizer), Clock.systemUTC(), Runnable::run, "http://notifications",
+            Duration.ofSeconds(1), Duration.ofSeconds(1), 5, Duration.ofSeconds(30), Duration.ofMinutes(1),
+            Duration.ofMinutes(5), false, false);
+        MockRestServiceServer server = customizer.getServer();
+        for (String unread : List.of("3", "5")) {
+            server.expect(requestTo("/notification/api/notifications/count?userId=1"))
+                .andExpect(header("Authorization", startsWith("Bearer ")))
+                .andRespond(withSuccess(unread, MediaType.APPLICATION_JSON));
+        }
+        UnreadNotificationCounter realCounter =
+            new UnreadNotificationCounter(realClient, clock, REFRESH_AFTER, Duration.ofMinutes(30));
+        List<Integer> pushed = new ArrayList<>();
+
+        signIn("ana@lifeplus.test");
+        realCounter.subscribe(1L, pushed::add);
+        // A thread do agendador não tem usuário autenticado
+        SecurityContextHolder.clearContext();
+        when(clock.instant()).thenReturn(START.plus(REFRESH_AFTER));
+        realCounter.refreshSubscribed();
+
+        server.verify();
+        assertThat(pushed).containsExactly(3, 5);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private static void signIn(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setRole(Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private void serviceCount(long receiverId, int unread) {
+        when(client.getCountNotificationsByReceiverIdAsync(receiverId)).thenReturn(CompletableFuture.completedFuture(unread));
+    }
+}